@@ -15,36 +15,65 @@
 package com.trello.rxlifecycle4.android.lifecycle.kotlin
 
 import androidx.lifecycle.Lifecycle
+import androidx.lifecycle.LifecycleEventObserver
 import androidx.lifecycle.LifecycleOwner
 import com.trello.lifecycle4.android.lifecycle.AndroidLifecycle
+import com.trello.rxlifecycle4.LifecycleProvider
 import io.reactivex.rxjava3.core.*
+import java.util.WeakHashMap
 
 fun <T> Observable<T>.bindToLifecycle(owner: LifecycleOwner): Observable<T>
-        = this.compose(AndroidLifecycle.createLifecycleProvider(owner).bindToLifecycle())
+        = this.compose(owner.lifecycleProvider().bindToLifecycle())
 
 fun <T> Observable<T>.bindUntilEvent(owner: LifecycleOwner, event: Lifecycle.Event): Observable<T>
-        = this.compose(AndroidLifecycle.createLifecycleProvider(owner).bindUntilEvent(event))
+        = this.compose(owner.lifecycleProvider().bindUntilEvent(event))
 
 fun <T> Flowable<T>.bindToLifecycle(owner: LifecycleOwner): Flowable<T>
-        = this.compose(AndroidLifecycle.createLifecycleProvider(owner).bindToLifecycle())
+        = this.compose(owner.lifecycleProvider().bindToLifecycle())
 
 fun <T> Flowable<T>.bindUntilEvent(owner: LifecycleOwner, event: Lifecycle.Event): Flowable<T>
-        = this.compose(AndroidLifecycle.createLifecycleProvider(owner).bindUntilEvent(event))
+        = this.compose(owner.lifecycleProvider().bindUntilEvent(event))
 
 fun <T> Single<T>.bindToLifecycle(owner: LifecycleOwner): Single<T>
-        = this.compose(AndroidLifecycle.createLifecycleProvider(owner).bindToLifecycle())
+        = this.compose(owner.lifecycleProvider().bindToLifecycle())
 
 fun <T> Single<T>.bindUntilEvent(owner: LifecycleOwner, event: Lifecycle.Event): Single<T>
-        = this.compose(AndroidLifecycle.createLifecycleProvider(owner).bindUntilEvent(event))
+        = this.compose(owner.lifecycleProvider().bindUntilEvent(event))
 
 fun <T> Maybe<T>.bindToLifecycle(owner: LifecycleOwner): Maybe<T>
-        = this.compose(AndroidLifecycle.createLifecycleProvider(owner).bindToLifecycle())
+        = this.compose(owner.lifecycleProvider().bindToLifecycle())
 
 fun <T> Maybe<T>.bindUntilEvent(owner: LifecycleOwner, event: Lifecycle.Event): Maybe<T>
-        = this.compose(AndroidLifecycle.createLifecycleProvider(owner).bindUntilEvent(event))
+        = this.compose(owner.lifecycleProvider().bindUntilEvent(event))
 
 fun Completable.bindToLifecycle(owner: LifecycleOwner): Completable
-        = this.compose(AndroidLifecycle.createLifecycleProvider(owner).bindToLifecycle<Completable>())
+        = this.compose(owner.lifecycleProvider().bindToLifecycle<Completable>())
 
 fun Completable.bindUntilEvent(owner: LifecycleOwner, event: Lifecycle.Event): Completable
-        = this.compose(AndroidLifecycle.createLifecycleProvider(owner).bindUntilEvent<Completable>(event))
+        = this.compose(owner.lifecycleProvider().bindUntilEvent<Completable>(event))
+
+// One provider per owner, so that binding many streams does not register an observer with the owner's Lifecycle
+// for each of them. A provider's bindings can reach back to its owner through their observers, so an entry is
+// removed when its owner is destroyed rather than left for the weak key to clear. A destroyed owner gets an
+// uncached provider, which starts out at ON_DESTROY, as it would never be removed again.
+private val providers = WeakHashMap<LifecycleOwner, LifecycleProvider<Lifecycle.Event>>()
+
+private fun LifecycleOwner.lifecycleProvider(): LifecycleProvider<Lifecycle.Event> = synchronized(providers) {
+    if (lifecycle.currentState == Lifecycle.State.DESTROYED) {
+        AndroidLifecycle.createLifecycleProvider(this)
+    } else {
+        providers[this] ?: AndroidLifecycle.createLifecycleProvider(this).also { provider ->
+            providers[this] = provider
+            lifecycle.addObserver(RemoveProviderOnDestroy)
+        }
+    }
+}
+
+private object RemoveProviderOnDestroy : LifecycleEventObserver {
+    override fun onStateChanged(source: LifecycleOwner, event: Lifecycle.Event) {
+        if (event == Lifecycle.Event.ON_DESTROY) {
+            synchronized(providers) { providers.remove(source) }
+            source.lifecycle.removeObserver(this)
+        }
+    }
+}
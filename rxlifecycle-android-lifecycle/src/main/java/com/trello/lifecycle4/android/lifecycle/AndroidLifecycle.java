@@ -1,23 +1,22 @@
 package com.trello.lifecycle4.android.lifecycle;
 
-import com.trello.rxlifecycle4.LifecycleProvider;
+import com.trello.rxlifecycle4.LifecycleEventSource;
+import com.trello.rxlifecycle4.LifecycleHub;
+import com.trello.rxlifecycle4.LifecycleHubProvider;
 import com.trello.rxlifecycle4.LifecycleTransformer;
-import com.trello.rxlifecycle4.RxLifecycle;
 
 import androidx.annotation.CheckResult;
 import androidx.annotation.NonNull;
 import androidx.lifecycle.Lifecycle;
-import androidx.lifecycle.LifecycleObserver;
+import androidx.lifecycle.LifecycleEventObserver;
 import androidx.lifecycle.LifecycleOwner;
-import androidx.lifecycle.OnLifecycleEvent;
 import io.reactivex.rxjava3.core.Observable;
-import io.reactivex.rxjava3.subjects.BehaviorSubject;
 
 /**
- * Wraps a {@link LifecycleOwner} so that it can be used as a {@link LifecycleProvider}. For example,
+ * Wraps a {@link LifecycleOwner} so that it can be used as a {@link LifecycleHubProvider}. For example,
  * you can do
  * <pre>{@code
- * LifecycleProvider<Lifecycle.Event> provider = AndroidLifecycle.createLifecycleProvider(this);
+ * LifecycleHubProvider<Lifecycle.Event> provider = AndroidLifecycle.createLifecycleProvider(this);
  * myObservable
  *     .compose(provider.bindLifecycle())
  *     .subscribe();
@@ -25,42 +24,58 @@ import io.reactivex.rxjava3.subjects.BehaviorSubject;
  * where {@code this} is a {@code android.arch.lifecycle.LifecycleActivity} or
  * {@code android.arch.lifecycle.LifecycleFragment}.
  */
-public final class AndroidLifecycle implements LifecycleProvider<Lifecycle.Event>, LifecycleObserver {
+public final class AndroidLifecycle implements LifecycleHubProvider<Lifecycle.Event>, LifecycleEventObserver {
 
-    public static LifecycleProvider<Lifecycle.Event> createLifecycleProvider(LifecycleOwner owner) {
+    public static LifecycleHubProvider<Lifecycle.Event> createLifecycleProvider(LifecycleOwner owner) {
         return new AndroidLifecycle(owner);
     }
 
-    private final BehaviorSubject<Lifecycle.Event> lifecycleSubject = BehaviorSubject.create();
+    private final LifecycleEventSource<Lifecycle.Event> lifecycleSource = LifecycleEventSource.create();
+    private final LifecycleHub<Lifecycle.Event> lifecycleHub =
+        RxLifecycleAndroidLifecycle.createLifecycleHub(lifecycleSource.asObservable());
 
     private AndroidLifecycle(LifecycleOwner owner) {
-        owner.getLifecycle().addObserver(this);
+        Lifecycle lifecycle = owner.getLifecycle();
+        if (lifecycle.getCurrentState() == Lifecycle.State.DESTROYED) {
+            // A destroyed owner does not dispatch anything to new observers, so it would never end any bindings
+            lifecycleSource.onNext(Lifecycle.Event.ON_DESTROY);
+        }
+        else {
+            lifecycle.addObserver(this);
+        }
     }
 
     @NonNull
     @Override
     @CheckResult
     public Observable<Lifecycle.Event> lifecycle() {
-        return lifecycleSubject.hide();
+        return lifecycleSource.asObservable();
     }
 
     @NonNull
     @Override
     @CheckResult
     public <T> LifecycleTransformer<T> bindUntilEvent(@NonNull Lifecycle.Event event) {
-        return RxLifecycle.bindUntilEvent(lifecycleSubject, event);
+        return lifecycleHub.bindUntilEvent(event);
     }
 
     @NonNull
     @Override
     @CheckResult
     public <T> LifecycleTransformer<T> bindToLifecycle() {
-        return RxLifecycleAndroidLifecycle.bindLifecycle(lifecycleSubject);
+        return lifecycleHub.bindToLifecycle();
+    }
+
+    @NonNull
+    @Override
+    @CheckResult
+    public LifecycleHub<Lifecycle.Event> lifecycleHub() {
+        return lifecycleHub;
     }
 
-    @OnLifecycleEvent(Lifecycle.Event.ON_ANY)
-    void onEvent(LifecycleOwner owner, Lifecycle.Event event) {
-        lifecycleSubject.onNext(event);
+    @Override
+    public void onStateChanged(@NonNull LifecycleOwner owner, @NonNull Lifecycle.Event event) {
+        lifecycleSource.onNext(event);
         if (event == Lifecycle.Event.ON_DESTROY) {
             owner.getLifecycle().removeObserver(this);
         }
@@ -1,15 +1,15 @@
 package com.trello.lifecycle4.android.lifecycle;
 
+import com.trello.rxlifecycle4.CorrespondingEvents;
+import com.trello.rxlifecycle4.LifecycleHub;
 import com.trello.rxlifecycle4.LifecycleTransformer;
-import com.trello.rxlifecycle4.OutsideLifecycleException;
 
 import androidx.annotation.CheckResult;
 import androidx.annotation.NonNull;
 import androidx.lifecycle.Lifecycle;
 import io.reactivex.rxjava3.core.Observable;
-import io.reactivex.rxjava3.functions.Function;
 
-import static com.trello.rxlifecycle4.RxLifecycle.bind;
+import static com.trello.rxlifecycle4.RxLifecycle.bindCorresponding;
 
 public final class RxLifecycleAndroidLifecycle {
 
@@ -32,28 +32,32 @@ public final class RxLifecycleAndroidLifecycle {
     @NonNull
     @CheckResult
     public static <T> LifecycleTransformer<T> bindLifecycle(@NonNull Observable<Lifecycle.Event> lifecycle) {
-        return bind(lifecycle, LIFECYCLE);
+        return bindCorresponding(lifecycle, LIFECYCLE);
     }
 
-    private static final Function<Lifecycle.Event, Lifecycle.Event> LIFECYCLE = new Function<Lifecycle.Event, Lifecycle.Event>() {
-        @Override
-        public Lifecycle.Event apply(Lifecycle.Event lastEvent) throws Exception {
-            switch (lastEvent) {
-                case ON_CREATE:
-                    return Lifecycle.Event.ON_DESTROY;
-                case ON_START:
-                    return Lifecycle.Event.ON_STOP;
-                case ON_RESUME:
-                    return Lifecycle.Event.ON_PAUSE;
-                case ON_PAUSE:
-                    return Lifecycle.Event.ON_STOP;
-                case ON_STOP:
-                    return Lifecycle.Event.ON_DESTROY;
-                case ON_DESTROY:
-                    throw new OutsideLifecycleException("Cannot bind to Activity lifecycle when outside of it.");
-                default:
-                    throw new UnsupportedOperationException("Binding to " + lastEvent + " not yet implemented");
-            }
-        }
-    };
+    /**
+     * Creates a {@link LifecycleHub} for an Android lifecycle.
+     * <p>
+     * The hub's {@link LifecycleHub#bindToLifecycle()} behaves the same as {@link #bindLifecycle(Observable)},
+     * but all of the sources bound through the hub share a single subscription to the lifecycle.
+     *
+     * @param lifecycle the lifecycle sequence of an Activity
+     * @return a {@link LifecycleHub} for the Android lifecycle
+     */
+    @NonNull
+    @CheckResult
+    public static LifecycleHub<Lifecycle.Event> createLifecycleHub(@NonNull Observable<Lifecycle.Event> lifecycle) {
+        return LifecycleHub.createCorresponding(lifecycle, Lifecycle.Event.class, LIFECYCLE);
+    }
+
+    private static final CorrespondingEvents<Lifecycle.Event> LIFECYCLE =
+        CorrespondingEvents.builder(Lifecycle.Event.class)
+            .map(Lifecycle.Event.ON_CREATE, Lifecycle.Event.ON_DESTROY)
+            .map(Lifecycle.Event.ON_START, Lifecycle.Event.ON_STOP)
+            .map(Lifecycle.Event.ON_RESUME, Lifecycle.Event.ON_PAUSE)
+            .map(Lifecycle.Event.ON_PAUSE, Lifecycle.Event.ON_STOP)
+            .map(Lifecycle.Event.ON_STOP, Lifecycle.Event.ON_DESTROY)
+            .outside(Lifecycle.Event.ON_DESTROY)
+            .unsupported(Lifecycle.Event.ON_ANY)
+            .build();
 }
@@ -18,6 +18,8 @@ import io.reactivex.rxjava3.core.Observable;
 import io.reactivex.rxjava3.observers.TestObserver;
 import io.reactivex.rxjava3.subjects.PublishSubject;
 
+import static org.junit.Assert.assertSame;
+
 @RunWith(RobolectricTestRunner.class)
 @Config(manifest = Config.NONE, sdk = 17)
 public class AndroidLifecycleActivityTest {
@@ -34,12 +36,15 @@ public class AndroidLifecycleActivityTest {
         testLifecycle(Robolectric.buildActivity(FragmentActivity.class));
         testBindUntilEvent(Robolectric.buildActivity(FragmentActivity.class));
         testBindToLifecycle(Robolectric.buildActivity(FragmentActivity.class));
+        testCreatedAfterDestroy(Robolectric.buildActivity(FragmentActivity.class));
     }
 
 
     private void testLifecycle(ActivityController<? extends LifecycleOwner> controller) {
         LifecycleProvider<Lifecycle.Event> provider = AndroidLifecycle.createLifecycleProvider(controller.get());
 
+        assertSame(provider.lifecycle(), provider.lifecycle());
+
         TestObserver<Lifecycle.Event> testObserver = provider.lifecycle().test();
 
         controller.create();
@@ -109,4 +114,14 @@ public class AndroidLifecycleActivityTest {
         createObserver.assertComplete();
         stopObserver.assertComplete();
     }
+
+    // Tests a provider created for an already destroyed Activity, which never dispatches anything to it
+    private void testCreatedAfterDestroy(ActivityController<? extends LifecycleOwner> controller) {
+        controller.create().start().resume().pause().stop().destroy();
+        LifecycleProvider<Lifecycle.Event> provider = AndroidLifecycle.createLifecycleProvider(controller.get());
+
+        provider.lifecycle().test().assertValues(Lifecycle.Event.ON_DESTROY);
+        observable.compose(provider.bindToLifecycle()).test().assertComplete();
+        observable.compose(provider.bindUntilEvent(Lifecycle.Event.ON_DESTROY)).test().assertComplete();
+    }
 }
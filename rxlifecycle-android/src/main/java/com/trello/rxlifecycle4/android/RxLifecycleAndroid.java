@@ -16,15 +16,16 @@ package com.trello.rxlifecycle4.android;
 
 import android.view.View;
 
+import com.trello.rxlifecycle4.CorrespondingEvents;
+import com.trello.rxlifecycle4.LifecycleHub;
 import com.trello.rxlifecycle4.LifecycleTransformer;
-import com.trello.rxlifecycle4.OutsideLifecycleException;
 
 import androidx.annotation.CheckResult;
 import androidx.annotation.NonNull;
 import io.reactivex.rxjava3.core.Observable;
-import io.reactivex.rxjava3.functions.Function;
 
 import static com.trello.rxlifecycle4.RxLifecycle.bind;
+import static com.trello.rxlifecycle4.RxLifecycle.bindCorresponding;
 import static com.trello.rxlifecycle4.internal.Preconditions.checkNotNull;
 
 public class RxLifecycleAndroid {
@@ -51,7 +52,7 @@ public class RxLifecycleAndroid {
     @NonNull
     @CheckResult
     public static <T> LifecycleTransformer<T> bindActivity(@NonNull final Observable<ActivityEvent> lifecycle) {
-        return bind(lifecycle, ACTIVITY_LIFECYCLE);
+        return bindCorresponding(lifecycle, ACTIVITY_LIFECYCLE);
     }
 
     /**
@@ -72,7 +73,37 @@ public class RxLifecycleAndroid {
     @NonNull
     @CheckResult
     public static <T> LifecycleTransformer<T> bindFragment(@NonNull final Observable<FragmentEvent> lifecycle) {
-        return bind(lifecycle, FRAGMENT_LIFECYCLE);
+        return bindCorresponding(lifecycle, FRAGMENT_LIFECYCLE);
+    }
+
+    /**
+     * Creates a {@link LifecycleHub} for an Activity lifecycle.
+     * <p>
+     * The hub's {@link LifecycleHub#bindToLifecycle()} behaves the same as {@link #bindActivity(Observable)},
+     * but all of the sources bound through the hub share a single subscription to the lifecycle.
+     *
+     * @param lifecycle the lifecycle sequence of an Activity
+     * @return a {@link LifecycleHub} for the Activity lifecycle
+     */
+    @NonNull
+    @CheckResult
+    public static LifecycleHub<ActivityEvent> createActivityHub(@NonNull final Observable<ActivityEvent> lifecycle) {
+        return LifecycleHub.createCorresponding(lifecycle, ActivityEvent.class, ACTIVITY_LIFECYCLE);
+    }
+
+    /**
+     * Creates a {@link LifecycleHub} for a Fragment lifecycle.
+     * <p>
+     * The hub's {@link LifecycleHub#bindToLifecycle()} behaves the same as {@link #bindFragment(Observable)},
+     * but all of the sources bound through the hub share a single subscription to the lifecycle.
+     *
+     * @param lifecycle the lifecycle sequence of a Fragment
+     * @return a {@link LifecycleHub} for the Fragment lifecycle
+     */
+    @NonNull
+    @CheckResult
+    public static LifecycleHub<FragmentEvent> createFragmentHub(@NonNull final Observable<FragmentEvent> lifecycle) {
+        return LifecycleHub.createCorresponding(lifecycle, FragmentEvent.class, FRAGMENT_LIFECYCLE);
     }
 
     /**
@@ -95,59 +126,29 @@ public class RxLifecycleAndroid {
     }
 
     // Figures out which corresponding next lifecycle event in which to unsubscribe, for Activities
-    private static final Function<ActivityEvent, ActivityEvent> ACTIVITY_LIFECYCLE =
-        new Function<ActivityEvent, ActivityEvent>() {
-            @Override
-            public ActivityEvent apply(ActivityEvent lastEvent) throws Exception {
-                switch (lastEvent) {
-                    case CREATE:
-                        return ActivityEvent.DESTROY;
-                    case START:
-                        return ActivityEvent.STOP;
-                    case RESUME:
-                        return ActivityEvent.PAUSE;
-                    case PAUSE:
-                        return ActivityEvent.STOP;
-                    case STOP:
-                        return ActivityEvent.DESTROY;
-                    case DESTROY:
-                        throw new OutsideLifecycleException("Cannot bind to Activity lifecycle when outside of it.");
-                    default:
-                        throw new UnsupportedOperationException("Binding to " + lastEvent + " not yet implemented");
-                }
-            }
-        };
+    private static final CorrespondingEvents<ActivityEvent> ACTIVITY_LIFECYCLE =
+        CorrespondingEvents.builder(ActivityEvent.class)
+            .map(ActivityEvent.CREATE, ActivityEvent.DESTROY)
+            .map(ActivityEvent.START, ActivityEvent.STOP)
+            .map(ActivityEvent.RESUME, ActivityEvent.PAUSE)
+            .map(ActivityEvent.PAUSE, ActivityEvent.STOP)
+            .map(ActivityEvent.STOP, ActivityEvent.DESTROY)
+            .outside(ActivityEvent.DESTROY)
+            .build();
 
     // Figures out which corresponding next lifecycle event in which to unsubscribe, for Fragments
-    private static final Function<FragmentEvent, FragmentEvent> FRAGMENT_LIFECYCLE =
-        new Function<FragmentEvent, FragmentEvent>() {
-            @Override
-            public FragmentEvent apply(FragmentEvent lastEvent) throws Exception {
-                switch (lastEvent) {
-                    case ATTACH:
-                        return FragmentEvent.DETACH;
-                    case CREATE:
-                        return FragmentEvent.DESTROY;
-                    case CREATE_VIEW:
-                        return FragmentEvent.DESTROY_VIEW;
-                    case START:
-                        return FragmentEvent.STOP;
-                    case RESUME:
-                        return FragmentEvent.PAUSE;
-                    case PAUSE:
-                        return FragmentEvent.STOP;
-                    case STOP:
-                        return FragmentEvent.DESTROY_VIEW;
-                    case DESTROY_VIEW:
-                        return FragmentEvent.DESTROY;
-                    case DESTROY:
-                        return FragmentEvent.DETACH;
-                    case DETACH:
-                        throw new OutsideLifecycleException("Cannot bind to Fragment lifecycle when outside of it.");
-                    default:
-                        throw new UnsupportedOperationException("Binding to " + lastEvent + " not yet implemented");
-                }
-            }
-        };
+    private static final CorrespondingEvents<FragmentEvent> FRAGMENT_LIFECYCLE =
+        CorrespondingEvents.builder(FragmentEvent.class)
+            .map(FragmentEvent.ATTACH, FragmentEvent.DETACH)
+            .map(FragmentEvent.CREATE, FragmentEvent.DESTROY)
+            .map(FragmentEvent.CREATE_VIEW, FragmentEvent.DESTROY_VIEW)
+            .map(FragmentEvent.START, FragmentEvent.STOP)
+            .map(FragmentEvent.RESUME, FragmentEvent.PAUSE)
+            .map(FragmentEvent.PAUSE, FragmentEvent.STOP)
+            .map(FragmentEvent.STOP, FragmentEvent.DESTROY_VIEW)
+            .map(FragmentEvent.DESTROY_VIEW, FragmentEvent.DESTROY)
+            .map(FragmentEvent.DESTROY, FragmentEvent.DETACH)
+            .outside(FragmentEvent.DETACH)
+            .build();
 
 }
@@ -0,0 +1,138 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4.android;
+
+import android.view.View;
+
+import io.reactivex.rxjava3.android.MainThreadDisposable;
+import io.reactivex.rxjava3.core.ObservableEmitter;
+
+/**
+ * The single {@link View.OnAttachStateChangeListener} shared by every {@link RxLifecycleAndroid#bindView(View)}
+ * binding on a View. It lives in a tag on the View while it has bindings, and removes itself with the last one.
+ * <p>
+ * Only used from the main thread.
+ */
+final class ViewDetachHub implements View.OnAttachStateChangeListener {
+
+    static final Object SIGNAL = new Object();
+
+    static Binding bind(View view, ObservableEmitter<Object> emitter) {
+        ViewDetachHub hub = (ViewDetachHub) view.getTag(R.id.rxlifecycle_view_detach_hub);
+        if (hub == null) {
+            hub = new ViewDetachHub(view);
+            view.setTag(R.id.rxlifecycle_view_detach_hub, hub);
+            view.addOnAttachStateChangeListener(hub);
+        }
+
+        Binding binding = new Binding(hub, emitter);
+        hub.add(binding);
+        return binding;
+    }
+
+    final View view;
+
+    Binding head;
+    Binding tail;
+
+    // Bumped on each detach, so that bindings made while notifying are not notified
+    int detachCount;
+
+    ViewDetachHub(View view) {
+        this.view = view;
+    }
+
+    @Override
+    public void onViewAttachedToWindow(View view) {
+        // Do nothing
+    }
+
+    @Override
+    public void onViewDetachedFromWindow(View view) {
+        int count = ++detachCount;
+        Binding binding = head;
+        while (binding != null) {
+            // Bindings end (and are removed) as they are notified; removed bindings keep their next
+            Binding next = binding.next;
+            if (!binding.removed && binding.since < count) {
+                binding.emitter.onNext(SIGNAL);
+            }
+            binding = next;
+        }
+    }
+
+    void add(Binding binding) {
+        binding.since = detachCount;
+        binding.prev = tail;
+        if (tail != null) {
+            tail.next = binding;
+        }
+        else {
+            head = binding;
+        }
+        tail = binding;
+    }
+
+    void remove(Binding binding) {
+        if (binding.removed) {
+            return;
+        }
+        binding.removed = true;
+
+        Binding prev = binding.prev;
+        Binding next = binding.next;
+        if (prev != null) {
+            prev.next = next;
+        }
+        else {
+            head = next;
+        }
+        if (next != null) {
+            next.prev = prev;
+        }
+        else {
+            tail = prev;
+        }
+        binding.prev = null;
+
+        if (head == null) {
+            view.removeOnAttachStateChangeListener(this);
+            if (view.getTag(R.id.rxlifecycle_view_detach_hub) == this) {
+                view.setTag(R.id.rxlifecycle_view_detach_hub, null);
+            }
+        }
+    }
+
+    static final class Binding extends MainThreadDisposable {
+
+        final ViewDetachHub hub;
+        final ObservableEmitter<Object> emitter;
+
+        Binding prev;
+        Binding next;
+        int since;
+        boolean removed;
+
+        Binding(ViewDetachHub hub, ObservableEmitter<Object> emitter) {
+            this.hub = hub;
+            this.emitter = emitter;
+        }
+
+        @Override
+        protected void onDispose() {
+            hub.remove(this);
+        }
+    }
+}
@@ -18,14 +18,11 @@ import android.view.View;
 
 import io.reactivex.rxjava3.core.ObservableEmitter;
 import io.reactivex.rxjava3.core.ObservableOnSubscribe;
-import io.reactivex.rxjava3.android.MainThreadDisposable;
 
 import static io.reactivex.rxjava3.android.MainThreadDisposable.verifyMainThread;
 
 final class ViewDetachesOnSubscribe implements ObservableOnSubscribe<Object> {
 
-    static final Object SIGNAL = new Object();
-
     final View view;
 
     public ViewDetachesOnSubscribe(View view) {
@@ -35,32 +32,7 @@ final class ViewDetachesOnSubscribe implements ObservableOnSubscribe<Object> {
     @Override
     public void subscribe(ObservableEmitter<Object> emitter) throws Exception {
         verifyMainThread();
-        EmitterListener listener = new EmitterListener(emitter);
-        emitter.setDisposable(listener);
-        view.addOnAttachStateChangeListener(listener);
-    }
-
-    class EmitterListener extends MainThreadDisposable implements View.OnAttachStateChangeListener {
-        final ObservableEmitter<Object> emitter;
-
-        public EmitterListener(ObservableEmitter<Object> emitter) {
-            this.emitter = emitter;
-        }
-
-        @Override
-        public void onViewAttachedToWindow(View view) {
-            // Do nothing
-        }
-
-        @Override
-        public void onViewDetachedFromWindow(View view) {
-            emitter.onNext(SIGNAL);
-        }
-
-        @Override
-        protected void onDispose() {
-            view.removeOnAttachStateChangeListener(this);
-        }
+        emitter.setDisposable(ViewDetachHub.bind(view, emitter));
     }
 
 }
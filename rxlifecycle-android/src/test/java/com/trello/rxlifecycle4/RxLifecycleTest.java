@@ -35,8 +35,10 @@ import io.reactivex.rxjava3.observers.TestObserver;
 import io.reactivex.rxjava3.subjects.BehaviorSubject;
 import io.reactivex.rxjava3.subjects.PublishSubject;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(RobolectricTestRunner.class)
 @Config(manifest = Config.NONE)
@@ -235,6 +237,31 @@ public class RxLifecycleTest {
         viewAttachObserver.assertComplete();
     }
 
+    @Test
+    public void testBindViewSharesListener() {
+        Activity activity = Robolectric.buildActivity(Activity.class).create().get();
+        View view = new View(activity);
+
+        TestObserver<Object> firstObserver = observable.compose(RxLifecycleAndroid.bindView(view)).test();
+        TestObserver<Object> secondObserver = observable.compose(RxLifecycleAndroid.bindView(view)).test();
+        CopyOnWriteArrayList<View.OnAttachStateChangeListener> listeners = TestUtil.getAttachStateChangeListeners(view);
+        assertNotNull(listeners);
+        assertEquals(1, listeners.size());
+
+        // Disposing one binding keeps the listener for the other
+        firstObserver.dispose();
+        assertEquals(1, listeners.size());
+
+        for (View.OnAttachStateChangeListener listener : listeners) {
+            listener.onViewDetachedFromWindow(view);
+        }
+        firstObserver.assertNotComplete();
+        secondObserver.assertComplete();
+
+        // The last binding to end removes the listener
+        assertTrue(TestUtil.getAttachStateChangeListeners(view).isEmpty());
+    }
+
     // Null checks
 
     @Test(expected = NullPointerException.class)
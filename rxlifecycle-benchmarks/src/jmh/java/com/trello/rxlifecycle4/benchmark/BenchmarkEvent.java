@@ -0,0 +1,55 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4.benchmark;
+
+import com.trello.rxlifecycle4.OutsideLifecycleException;
+import io.reactivex.rxjava3.functions.Function;
+
+/**
+ * Stand-in for the Android lifecycle events, so that the benchmarks can run on a plain JVM.
+ */
+enum BenchmarkEvent {
+
+    CREATE,
+    START,
+    RESUME,
+    PAUSE,
+    STOP,
+    DESTROY;
+
+    // Mirrors the Activity mapping in rxlifecycle-android
+    static final Function<BenchmarkEvent, BenchmarkEvent> CORRESPONDING_EVENTS =
+        new Function<BenchmarkEvent, BenchmarkEvent>() {
+            @Override
+            public BenchmarkEvent apply(BenchmarkEvent lastEvent) throws Exception {
+                switch (lastEvent) {
+                    case CREATE:
+                        return DESTROY;
+                    case START:
+                        return STOP;
+                    case RESUME:
+                        return PAUSE;
+                    case PAUSE:
+                        return STOP;
+                    case STOP:
+                        return DESTROY;
+                    case DESTROY:
+                        throw new OutsideLifecycleException("Cannot bind to Activity lifecycle when outside of it.");
+                    default:
+                        throw new UnsupportedOperationException("Binding to " + lastEvent + " not yet implemented");
+                }
+            }
+        };
+}
@@ -0,0 +1,29 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4.benchmark;
+
+import io.reactivex.rxjava3.subjects.BehaviorSubject;
+import io.reactivex.rxjava3.subjects.PublishSubject;
+
+/**
+ * A lifecycle that is in the middle of its window (i.e. started), the same way a provider is while
+ * streams are being bound to it.
+ */
+final class BenchmarkLifecycle {
+
+    final BehaviorSubject<BenchmarkEvent> events = BehaviorSubject.createDefault(BenchmarkEvent.START);
+
+    final PublishSubject<BenchmarkEvent> signals = PublishSubject.create();
+}
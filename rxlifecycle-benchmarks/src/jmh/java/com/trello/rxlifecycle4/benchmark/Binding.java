@@ -0,0 +1,68 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4.benchmark;
+
+import com.trello.rxlifecycle4.LifecycleTransformer;
+import com.trello.rxlifecycle4.RxLifecycle;
+
+import io.reactivex.rxjava3.core.Observable;
+
+/**
+ * The ways of building a {@link LifecycleTransformer} that are measured by the benchmarks.
+ */
+public enum Binding {
+
+    /**
+     * {@link RxLifecycle#bind(Observable)}; the lifecycle does not replay, since any event ends the binding.
+     */
+    BIND {
+        @Override
+        <T> LifecycleTransformer<T> create(BenchmarkLifecycle lifecycle) {
+            return RxLifecycle.bind(lifecycle.signals);
+        }
+    },
+
+    /**
+     * {@link RxLifecycle#bindUntilEvent(Observable, Object)}.
+     */
+    BIND_UNTIL_EVENT {
+        @Override
+        <T> LifecycleTransformer<T> create(BenchmarkLifecycle lifecycle) {
+            return RxLifecycle.bindUntilEvent(lifecycle.events, BenchmarkEvent.STOP);
+        }
+    },
+
+    /**
+     * {@link RxLifecycle#bind(Observable, io.reactivex.rxjava3.functions.Function)}.
+     */
+    BIND_CORRESPONDING {
+        @Override
+        <T> LifecycleTransformer<T> create(BenchmarkLifecycle lifecycle) {
+            return RxLifecycle.bind(lifecycle.events, BenchmarkEvent.CORRESPONDING_EVENTS);
+        }
+    },
+
+    /**
+     * {@link RxLifecycle#bindEnum(Observable, Class, io.reactivex.rxjava3.functions.Function)}.
+     */
+    BIND_ENUM {
+        @Override
+        <T> LifecycleTransformer<T> create(BenchmarkLifecycle lifecycle) {
+            return RxLifecycle.bindEnum(lifecycle.events, BenchmarkEvent.class, BenchmarkEvent.CORRESPONDING_EVENTS);
+        }
+    };
+
+    abstract <T> LifecycleTransformer<T> create(BenchmarkLifecycle lifecycle);
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4.benchmark;
+
+import com.trello.rxlifecycle4.LifecycleTransformer;
+import com.trello.rxlifecycle4.RxLifecycle;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.disposables.CompositeDisposable;
+import io.reactivex.rxjava3.functions.Predicate;
+import io.reactivex.rxjava3.subjects.PublishSubject;
+
+/**
+ * Measures how {@code bindUntilEvent} bindings test the events of several lifecycle types at once, the way an app
+ * that binds activities, fragments and architecture components does.
+ * <p>
+ * Each of three lifecycles, each with its own enum type, has {@link #BINDINGS} bindings waiting for its last
+ * event; an operation emits an event which none of them waits for on each lifecycle. Since every binding tests
+ * events with the same predicate class, the comparison sees all three enum types.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class EventComparisonBenchmark {
+
+    static final int BINDINGS = 16;
+
+    public enum Comparison {
+
+        /**
+         * Filters with {@code equals}, as {@link RxLifecycle#bindUntilEvent(Observable, Object)} used to.
+         */
+        EQUALS {
+            @Override
+            <T, E> LifecycleTransformer<T> create(Observable<E> lifecycle, final E event) {
+                return RxLifecycle.bind(lifecycle.filter(new Predicate<E>() {
+                    @Override
+                    public boolean test(E lifecycleEvent) {
+                        return lifecycleEvent.equals(event);
+                    }
+                }));
+            }
+        },
+
+        /**
+         * {@link RxLifecycle#bindUntilEvent(Observable, Object)}, which compares enum events by identity.
+         */
+        IDENTITY {
+            @Override
+            <T, E> LifecycleTransformer<T> create(Observable<E> lifecycle, E event) {
+                return RxLifecycle.bindUntilEvent(lifecycle, event);
+            }
+        };
+
+        abstract <T, E> LifecycleTransformer<T> create(Observable<E> lifecycle, E event);
+    }
+
+    enum FragmentEvent {
+        ATTACH,
+        CREATE,
+        CREATE_VIEW,
+        DESTROY_VIEW,
+        DESTROY,
+        DETACH
+    }
+
+    enum OwnerEvent {
+        ON_CREATE,
+        ON_START,
+        ON_STOP,
+        ON_DESTROY
+    }
+
+    @Param
+    public Comparison comparison;
+
+    private final PublishSubject<BenchmarkEvent> activity = PublishSubject.create();
+    private final PublishSubject<FragmentEvent> fragment = PublishSubject.create();
+    private final PublishSubject<OwnerEvent> owner = PublishSubject.create();
+    private final CompositeDisposable bindings = new CompositeDisposable();
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < BINDINGS; i++) {
+            bindings.add(Observable.never().compose(comparison.create(activity, BenchmarkEvent.DESTROY)).subscribe());
+            bindings.add(Observable.never().compose(comparison.create(fragment, FragmentEvent.DETACH)).subscribe());
+            bindings.add(Observable.never().compose(comparison.create(owner, OwnerEvent.ON_DESTROY)).subscribe());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        bindings.dispose();
+    }
+
+    @Benchmark
+    public void untilEvent() {
+        activity.onNext(BenchmarkEvent.RESUME);
+        fragment.onNext(FragmentEvent.CREATE_VIEW);
+        owner.onNext(OwnerEvent.ON_START);
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4.benchmark;
+
+import com.trello.rxlifecycle4.LifecycleTransformer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Maybe;
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.disposables.Disposable;
+
+/**
+ * Measures the cost of binding a single stream, for every shape supported by {@link LifecycleTransformer}.
+ * <p>
+ * Each operation creates a transformer (as {@code compose(bindToLifecycle())} does), then either
+ * <ul>
+ *     <li>subscribes to a source that emits and completes, tearing the binding down on completion, or</li>
+ *     <li>subscribes to a source that never terminates and disposes it.</li>
+ * </ul>
+ * Run with {@code ./gradlew :rxlifecycle-benchmarks:jmh}; the gc profiler reports bytes allocated per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class LifecycleTransformerBenchmark {
+
+    private static final Integer ITEM = 1;
+
+    @Param
+    public Binding binding;
+
+    private BenchmarkLifecycle lifecycle;
+
+    @Setup
+    public void setup() {
+        lifecycle = new BenchmarkLifecycle();
+    }
+
+    @Benchmark
+    public Disposable observable() {
+        return Observable.just(ITEM).compose(binding.<Integer>create(lifecycle)).subscribe();
+    }
+
+    @Benchmark
+    public Disposable observableDispose() {
+        return dispose(Observable.<Integer>never().compose(binding.<Integer>create(lifecycle)).subscribe());
+    }
+
+    @Benchmark
+    public Disposable flowable() {
+        return Flowable.just(ITEM).compose(binding.<Integer>create(lifecycle)).subscribe();
+    }
+
+    @Benchmark
+    public Disposable flowableDispose() {
+        return dispose(Flowable.<Integer>never().compose(binding.<Integer>create(lifecycle)).subscribe());
+    }
+
+    @Benchmark
+    public Disposable single() {
+        return Single.just(ITEM).compose(binding.<Integer>create(lifecycle)).subscribe();
+    }
+
+    @Benchmark
+    public Disposable singleDispose() {
+        return dispose(Single.<Integer>never().compose(binding.<Integer>create(lifecycle)).subscribe());
+    }
+
+    @Benchmark
+    public Disposable maybe() {
+        return Maybe.just(ITEM).compose(binding.<Integer>create(lifecycle)).subscribe();
+    }
+
+    @Benchmark
+    public Disposable maybeDispose() {
+        return dispose(Maybe.<Integer>never().compose(binding.<Integer>create(lifecycle)).subscribe());
+    }
+
+    @Benchmark
+    public Disposable completable() {
+        return Completable.complete().compose(binding.create(lifecycle)).subscribe();
+    }
+
+    @Benchmark
+    public Disposable completableDispose() {
+        return dispose(Completable.never().compose(binding.create(lifecycle)).subscribe());
+    }
+
+    private static Disposable dispose(Disposable disposable) {
+        disposable.dispose();
+        return disposable;
+    }
+}
@@ -17,9 +17,10 @@ package com.trello.rxlifecycle4.components.preference;
 import android.os.Bundle;
 import android.view.View;
 
-import com.trello.rxlifecycle4.LifecycleProvider;
+import com.trello.rxlifecycle4.LifecycleEventSource;
+import com.trello.rxlifecycle4.LifecycleHub;
+import com.trello.rxlifecycle4.LifecycleHubProvider;
 import com.trello.rxlifecycle4.LifecycleTransformer;
-import com.trello.rxlifecycle4.RxLifecycle;
 import com.trello.rxlifecycle4.android.FragmentEvent;
 import com.trello.rxlifecycle4.android.RxLifecycleAndroid;
 
@@ -29,100 +30,108 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.preference.EditTextPreferenceDialogFragmentCompat;
 import io.reactivex.rxjava3.core.Observable;
-import io.reactivex.rxjava3.subjects.BehaviorSubject;
 
-public abstract class RxEditTextPreferenceDialogFragmentCompat extends EditTextPreferenceDialogFragmentCompat implements LifecycleProvider<FragmentEvent> {
+public abstract class RxEditTextPreferenceDialogFragmentCompat extends EditTextPreferenceDialogFragmentCompat implements LifecycleHubProvider<FragmentEvent> {
 
-    private final BehaviorSubject<FragmentEvent> lifecycleSubject = BehaviorSubject.create();
+    private final LifecycleEventSource<FragmentEvent> lifecycleSource = LifecycleEventSource.create();
+    private final LifecycleHub<FragmentEvent> lifecycleHub =
+        RxLifecycleAndroid.createFragmentHub(lifecycleSource.asObservable());
 
     @Override
     @NonNull
     @CheckResult
     public final Observable<FragmentEvent> lifecycle() {
-        return lifecycleSubject.hide();
+        return lifecycleSource.asObservable();
     }
 
     @Override
     @NonNull
     @CheckResult
     public final <T> LifecycleTransformer<T> bindUntilEvent(@NonNull FragmentEvent event) {
-        return RxLifecycle.bindUntilEvent(lifecycleSubject, event);
+        return lifecycleHub.bindUntilEvent(event);
     }
 
     @Override
     @NonNull
     @CheckResult
     public final <T> LifecycleTransformer<T> bindToLifecycle() {
-        return RxLifecycleAndroid.bindFragment(lifecycleSubject);
+        return lifecycleHub.bindToLifecycle();
+    }
+
+    @Override
+    @NonNull
+    @CheckResult
+    public final LifecycleHub<FragmentEvent> lifecycleHub() {
+        return lifecycleHub;
     }
 
     @Override
     @CallSuper
     public void onAttach(android.app.Activity activity) {
         super.onAttach(activity);
-        lifecycleSubject.onNext(FragmentEvent.ATTACH);
+        lifecycleSource.onNext(FragmentEvent.ATTACH);
     }
 
     @Override
     @CallSuper
     public void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        lifecycleSubject.onNext(FragmentEvent.CREATE);
+        lifecycleSource.onNext(FragmentEvent.CREATE);
     }
 
     @Override
     @CallSuper
     public void onViewCreated(View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
-        lifecycleSubject.onNext(FragmentEvent.CREATE_VIEW);
+        lifecycleSource.onNext(FragmentEvent.CREATE_VIEW);
     }
 
     @Override
     @CallSuper
     public void onStart() {
         super.onStart();
-        lifecycleSubject.onNext(FragmentEvent.START);
+        lifecycleSource.onNext(FragmentEvent.START);
     }
 
     @Override
     @CallSuper
     public void onResume() {
         super.onResume();
-        lifecycleSubject.onNext(FragmentEvent.RESUME);
+        lifecycleSource.onNext(FragmentEvent.RESUME);
     }
 
     @Override
     @CallSuper
     public void onPause() {
-        lifecycleSubject.onNext(FragmentEvent.PAUSE);
+        lifecycleSource.onNext(FragmentEvent.PAUSE);
         super.onPause();
     }
 
     @Override
     @CallSuper
     public void onStop() {
-        lifecycleSubject.onNext(FragmentEvent.STOP);
+        lifecycleSource.onNext(FragmentEvent.STOP);
         super.onStop();
     }
 
     @Override
     @CallSuper
     public void onDestroyView() {
-        lifecycleSubject.onNext(FragmentEvent.DESTROY_VIEW);
+        lifecycleSource.onNext(FragmentEvent.DESTROY_VIEW);
         super.onDestroyView();
     }
 
     @Override
     @CallSuper
     public void onDestroy() {
-        lifecycleSubject.onNext(FragmentEvent.DESTROY);
+        lifecycleSource.onNext(FragmentEvent.DESTROY);
         super.onDestroy();
     }
 
     @Override
     @CallSuper
     public void onDetach() {
-        lifecycleSubject.onNext(FragmentEvent.DETACH);
+        lifecycleSource.onNext(FragmentEvent.DETACH);
         super.onDetach();
     }
 }
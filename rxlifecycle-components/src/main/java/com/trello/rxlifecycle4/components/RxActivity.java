@@ -17,9 +17,10 @@ package com.trello.rxlifecycle4.components;
 import android.app.Activity;
 import android.os.Bundle;
 
-import com.trello.rxlifecycle4.LifecycleProvider;
+import com.trello.rxlifecycle4.LifecycleEventSource;
+import com.trello.rxlifecycle4.LifecycleHub;
+import com.trello.rxlifecycle4.LifecycleHubProvider;
 import com.trello.rxlifecycle4.LifecycleTransformer;
-import com.trello.rxlifecycle4.RxLifecycle;
 import com.trello.rxlifecycle4.android.ActivityEvent;
 import com.trello.rxlifecycle4.android.RxLifecycleAndroid;
 
@@ -28,72 +29,80 @@ import androidx.annotation.CheckResult;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import io.reactivex.rxjava3.core.Observable;
-import io.reactivex.rxjava3.subjects.BehaviorSubject;
 
-public abstract class RxActivity extends Activity implements LifecycleProvider<ActivityEvent> {
+public abstract class RxActivity extends Activity implements LifecycleHubProvider<ActivityEvent> {
 
-    private final BehaviorSubject<ActivityEvent> lifecycleSubject = BehaviorSubject.create();
+    private final LifecycleEventSource<ActivityEvent> lifecycleSource = LifecycleEventSource.create();
+    private final LifecycleHub<ActivityEvent> lifecycleHub =
+        RxLifecycleAndroid.createActivityHub(lifecycleSource.asObservable());
 
     @Override
     @NonNull
     @CheckResult
     public final Observable<ActivityEvent> lifecycle() {
-        return lifecycleSubject.hide();
+        return lifecycleSource.asObservable();
     }
 
     @Override
     @NonNull
     @CheckResult
     public final <T> LifecycleTransformer<T> bindUntilEvent(@NonNull ActivityEvent event) {
-        return RxLifecycle.bindUntilEvent(lifecycleSubject, event);
+        return lifecycleHub.bindUntilEvent(event);
     }
 
     @Override
     @NonNull
     @CheckResult
     public final <T> LifecycleTransformer<T> bindToLifecycle() {
-        return RxLifecycleAndroid.bindActivity(lifecycleSubject);
+        return lifecycleHub.bindToLifecycle();
+    }
+
+    @Override
+    @NonNull
+    @CheckResult
+    public final LifecycleHub<ActivityEvent> lifecycleHub() {
+        return lifecycleHub;
     }
 
     @Override
     @CallSuper
     protected void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        lifecycleSubject.onNext(ActivityEvent.CREATE);
+        lifecycleSource.onNext(ActivityEvent.CREATE);
     }
 
     @Override
     @CallSuper
     protected void onStart() {
         super.onStart();
-        lifecycleSubject.onNext(ActivityEvent.START);
+        lifecycleSource.onNext(ActivityEvent.START);
     }
 
     @Override
     @CallSuper
     protected void onResume() {
         super.onResume();
-        lifecycleSubject.onNext(ActivityEvent.RESUME);
+        lifecycleSource.onNext(ActivityEvent.RESUME);
     }
 
     @Override
     @CallSuper
     protected void onPause() {
-        lifecycleSubject.onNext(ActivityEvent.PAUSE);
+        lifecycleSource.onNext(ActivityEvent.PAUSE);
         super.onPause();
     }
 
     @Override
     @CallSuper
     protected void onStop() {
-        lifecycleSubject.onNext(ActivityEvent.STOP);
+        lifecycleSource.onNext(ActivityEvent.STOP);
         super.onStop();
     }
 
     @Override
     @CallSuper
     protected void onDestroy() {
-        lifecycleSubject.onNext(ActivityEvent.DESTROY);
+        lifecycleSource.onNext(ActivityEvent.DESTROY);
         super.onDestroy();
     }
 }
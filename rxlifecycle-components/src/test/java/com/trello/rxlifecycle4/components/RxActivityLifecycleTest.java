@@ -31,6 +31,7 @@ import io.reactivex.rxjava3.observers.TestObserver;
 import io.reactivex.rxjava3.subjects.PublishSubject;
 
 import static com.trello.rxlifecycle4.android.ActivityEvent.STOP;
+import static org.junit.Assert.assertSame;
 
 @RunWith(RobolectricTestRunner.class)
 @Config(manifest = Config.NONE)
@@ -68,6 +69,8 @@ public class RxActivityLifecycleTest {
     private void testLifecycle(ActivityController<? extends LifecycleProvider<ActivityEvent>> controller) {
         LifecycleProvider<ActivityEvent> activity = controller.get();
 
+        assertSame(activity.lifecycle(), activity.lifecycle());
+
         TestObserver<ActivityEvent> testObserver = activity.lifecycle().test();
 
         controller.create();
@@ -20,6 +20,7 @@ import com.trello.rxlifecycle4.RxLifecycle
 import com.trello.rxlifecycle4.android.RxLifecycleAndroid
 import io.reactivex.rxjava3.core.*
 import io.reactivex.rxjava3.functions.Function
+import io.reactivex.rxjava3.parallel.ParallelFlowable
 
 // RxLifecycle extensions
 
@@ -41,6 +42,15 @@ fun <T, E> Flowable<T>.bindUntilEvent(lifecycle: Observable<E>, event: E): Flowa
 fun <T, E> Flowable<T>.bind(lifecycle: Observable<E>, correspondingEvents: Function<E, E>): Flowable<T>
     = this.compose<T>(RxLifecycle.bind(lifecycle, correspondingEvents))
 
+fun <T, E> ParallelFlowable<T>.bind(lifecycle: Observable<E>): ParallelFlowable<T>
+    = this.compose<T>(RxLifecycle.bind(lifecycle))
+
+fun <T, E> ParallelFlowable<T>.bindUntilEvent(lifecycle: Observable<E>, event: E): ParallelFlowable<T>
+    = this.compose<T>(RxLifecycle.bindUntilEvent(lifecycle, event))
+
+fun <T, E> ParallelFlowable<T>.bind(lifecycle: Observable<E>, correspondingEvents: Function<E, E>): ParallelFlowable<T>
+    = this.compose<T>(RxLifecycle.bind(lifecycle, correspondingEvents))
+
 fun <T, E> Single<T>.bind(lifecycle: Observable<E>): Single<T>
     = this.compose<T>(RxLifecycle.bind(lifecycle))
 
@@ -88,6 +98,15 @@ fun <T, E> Flowable<T>.bindUntilEvent(provider: LifecycleProvider<E>, event: E):
 fun <T> Flowable<T>.bindToLifecycle(view: View): Flowable<T>
     = this.compose<T>(RxLifecycleAndroid.bindView(view))
 
+fun <T, E> ParallelFlowable<T>.bindToLifecycle(provider: LifecycleProvider<E>): ParallelFlowable<T>
+    = this.compose<T>(provider.bindToLifecycle<T>())
+
+fun <T, E> ParallelFlowable<T>.bindUntilEvent(provider: LifecycleProvider<E>, event: E): ParallelFlowable<T>
+    = this.compose<T>(provider.bindUntilEvent(event))
+
+fun <T> ParallelFlowable<T>.bindToLifecycle(view: View): ParallelFlowable<T>
+    = this.compose<T>(RxLifecycleAndroid.bindView(view))
+
 fun <T, E> Single<T>.bindToLifecycle(provider: LifecycleProvider<E>): Single<T>
     = this.compose(provider.bindToLifecycle<T>())
 
@@ -0,0 +1,194 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.CompletableObserver;
+import io.reactivex.rxjava3.core.CompletableSource;
+import io.reactivex.rxjava3.core.Observer;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.internal.disposables.DisposableHelper;
+import io.reactivex.rxjava3.plugins.RxJavaPlugins;
+
+/**
+ * Binds a {@link Completable} to a lifecycle: the first lifecycle event cancels it with a
+ * {@link CancellationException}, and the lifecycle completing completes it.
+ * <p>
+ * Equivalent to racing the upstream against the lifecycle mapped to an error, but subscribes to the lifecycle
+ * directly and signals the cancellation itself, instead of going through {@code ambArray} and
+ * {@code flatMapCompletable}.
+ */
+final class CompletableTakeUntilLifecycle extends Completable {
+
+    final CompletableSource upstream;
+    final LifecycleTransformer<?> transformer;
+
+    CompletableTakeUntilLifecycle(CompletableSource upstream, LifecycleTransformer<?> transformer) {
+        this.upstream = upstream;
+        this.transformer = transformer;
+    }
+
+    @Override
+    protected void subscribeActual(CompletableObserver observer) {
+        RxLifecycleMonitor monitor = RxLifecycle.monitor;
+        TakeUntilLifecycleObserver parent =
+            new TakeUntilLifecycleObserver(observer, monitor, monitor.onSubscribe(transformer));
+        observer.onSubscribe(parent);
+        // The upstream goes first, as with ambArray, so a Completable which is already done never touches the lifecycle
+        upstream.subscribe(parent);
+        if (parent.terminal == null) {
+            transformer.observable.subscribe(parent.other);
+        }
+    }
+
+    static final class TakeUntilLifecycleObserver extends AtomicReference<Disposable>
+        implements CompletableObserver, Disposable {
+
+        static final AtomicReferenceFieldUpdater<TakeUntilLifecycleObserver, Throwable> TERMINAL =
+            AtomicReferenceFieldUpdater.newUpdater(TakeUntilLifecycleObserver.class, Throwable.class, "terminal");
+
+        // Marks normal completion in the terminal slot (which otherwise holds the error)
+        static final Throwable COMPLETE = new Throwable("Completed");
+
+        // Marks disposal in the terminal slot, so that the monitor sees exactly one ending
+        static final Throwable DISPOSED = new Throwable("Disposed");
+
+        final CompletableObserver downstream;
+        final OtherObserver other;
+        final RxLifecycleMonitor monitor;
+        final Object token;
+
+        // The first terminal event to arrive, from either the upstream or the lifecycle
+        volatile Throwable terminal;
+
+        TakeUntilLifecycleObserver(CompletableObserver downstream, RxLifecycleMonitor monitor, Object token) {
+            this.downstream = downstream;
+            this.other = new OtherObserver(this);
+            this.monitor = monitor;
+            this.token = token;
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            DisposableHelper.setOnce(this, d);
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            DisposableHelper.dispose(other);
+            if (claimTerminal(e)) {
+                monitor.onUpstreamEnd(token);
+                downstream.onError(e);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            DisposableHelper.dispose(other);
+            if (claimTerminal(COMPLETE)) {
+                monitor.onUpstreamEnd(token);
+                downstream.onComplete();
+            }
+        }
+
+        void lifecycleError(Throwable e) {
+            DisposableHelper.dispose(this);
+            if (claimTerminal(e)) {
+                monitor.onLifecycleEnd(token, null);
+                downstream.onError(e);
+            }
+        }
+
+        void lifecycleComplete() {
+            DisposableHelper.dispose(this);
+            if (claimTerminal(COMPLETE)) {
+                monitor.onLifecycleEnd(token, null);
+                downstream.onComplete();
+            }
+        }
+
+        void lifecycleEvent(Object event, Disposable lifecycle) {
+            Disposable current = getAndSet(DisposableHelper.DISPOSED);
+            if (current != null && current != DisposableHelper.DISPOSED
+                && !LifecycleHub.deferDispose(lifecycle, current)) {
+                current.dispose();
+            }
+            // Claimed with the completion marker, so that the exception is only created if it is delivered
+            if (TERMINAL.compareAndSet(this, null, COMPLETE)) {
+                monitor.onLifecycleEnd(token, event);
+                downstream.onError(new LifecycleCancellationException());
+            }
+        }
+
+        boolean claimTerminal(Throwable t) {
+            if (TERMINAL.compareAndSet(this, null, t)) {
+                return true;
+            }
+            if (t != COMPLETE && terminal != DISPOSED) {
+                RxJavaPlugins.onError(t);
+            }
+            return false;
+        }
+
+        @Override
+        public void dispose() {
+            DisposableHelper.dispose(this);
+            DisposableHelper.dispose(other);
+            if (TERMINAL.compareAndSet(this, null, DISPOSED)) {
+                monitor.onDispose(token);
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return DisposableHelper.isDisposed(get());
+        }
+    }
+
+    static final class OtherObserver extends AtomicReference<Disposable> implements Observer<Object> {
+
+        final TakeUntilLifecycleObserver parent;
+
+        OtherObserver(TakeUntilLifecycleObserver parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            DisposableHelper.setOnce(this, d);
+        }
+
+        @Override
+        public void onNext(Object event) {
+            Disposable lifecycle = get();
+            DisposableHelper.dispose(this);
+            parent.lifecycleEvent(event, lifecycle);
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            parent.lifecycleError(e);
+        }
+
+        @Override
+        public void onComplete() {
+            parent.lifecycleComplete();
+        }
+    }
+}
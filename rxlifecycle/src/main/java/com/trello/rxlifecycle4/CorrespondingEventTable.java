@@ -0,0 +1,70 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import javax.annotation.Nullable;
+
+import io.reactivex.rxjava3.functions.Function;
+
+/**
+ * The corresponding events of an enum lifecycle, resolved at most once per event rather than once per binding.
+ */
+final class CorrespondingEventTable<E extends Enum<E>> implements CorrespondingEventsFunction<E> {
+
+    // Marks events which are outside of the lifecycle
+    private static final Object OUTSIDE = new Object();
+
+    final CorrespondingEventsFunction<E> correspondingEvents;
+
+    // Indexed by ordinal and filled in as events are resolved. Failures are not recorded, so that the
+    // function fails each binding the same way. Racing resolutions store the same result, so plain
+    // writes are enough.
+    final Object[] endEvents;
+
+    /**
+     * @return a function which resolves each event at most once; {@link CorrespondingEvents} already does
+     */
+    static <E extends Enum<E>> CorrespondingEventsFunction<E> of(Class<E> eventType,
+                                                                 CorrespondingEventsFunction<E> correspondingEvents) {
+        if (correspondingEvents instanceof CorrespondingEvents) {
+            return correspondingEvents;
+        }
+        return new CorrespondingEventTable<>(eventType, correspondingEvents);
+    }
+
+    CorrespondingEventTable(Class<E> eventType, CorrespondingEventsFunction<E> correspondingEvents) {
+        this.correspondingEvents = correspondingEvents;
+        this.endEvents = new Object[eventType.getEnumConstants().length];
+    }
+
+    /**
+     * @return the event which ends a binding made at the given event, or null if the event is outside the lifecycle
+     */
+    @Nullable
+    @Override
+    @SuppressWarnings("unchecked")
+    public E apply(E event) throws Exception {
+        int index = event.ordinal();
+        Object endEvent = endEvents[index];
+        if (endEvent == null) {
+            endEvent = correspondingEvents.apply(event);
+            if (endEvent == null) {
+                endEvent = OUTSIDE;
+            }
+            endEvents[index] = endEvent;
+        }
+        return endEvent == OUTSIDE ? null : (E) endEvent;
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import static com.trello.rxlifecycle4.internal.Preconditions.checkNotNull;
+
+/**
+ * A table of the corresponding events of an enum lifecycle, indexed by ordinal.
+ * <p>
+ * Every constant must be declared as either mapping to the event which ends it, being {@link Builder#outside(Enum)
+ * outside} of the lifecycle or being {@link Builder#unsupported(Enum) unsupported}; {@link Builder#build()} fails
+ * otherwise, so a new constant cannot be silently left out. For example:
+ * <pre>{@code
+ * CorrespondingEvents<MyEvent> events = CorrespondingEvents.builder(MyEvent.class)
+ *     .map(MyEvent.CREATE, MyEvent.DESTROY)
+ *     .map(MyEvent.START, MyEvent.STOP)
+ *     .map(MyEvent.STOP, MyEvent.DESTROY)
+ *     .outside(MyEvent.DESTROY)
+ *     .build();
+ * }</pre>
+ *
+ * @param <E> the type of lifecycle events
+ */
+@ParametersAreNonnullByDefault
+public final class CorrespondingEvents<E extends Enum<E>> implements CorrespondingEventsFunction<E> {
+
+    // Marks events which are outside of the lifecycle
+    static final Object OUTSIDE = new Object();
+
+    // Marks events which cannot be bound to
+    static final Object UNSUPPORTED = new Object();
+
+    /**
+     * Starts a table for an enum lifecycle.
+     *
+     * @param eventType the class of the lifecycle's events
+     * @return a builder which has no events declared yet
+     */
+    @Nonnull
+    @CheckReturnValue
+    public static <E extends Enum<E>> Builder<E> builder(@Nonnull Class<E> eventType) {
+        checkNotNull(eventType, "eventType == null");
+        return new Builder<>(eventType);
+    }
+
+    final Object[] endEvents;
+
+    CorrespondingEvents(Object[] endEvents) {
+        this.endEvents = endEvents;
+    }
+
+    /**
+     * @return the event which ends a binding made at the given event, or null if the event is outside the lifecycle
+     * @throws UnsupportedOperationException if the event was declared as unsupported
+     */
+    @Nullable
+    @Override
+    @SuppressWarnings("unchecked")
+    public E apply(@Nonnull E event) {
+        Object endEvent = endEvents[event.ordinal()];
+        if (endEvent == OUTSIDE) {
+            return null;
+        }
+        if (endEvent == UNSUPPORTED) {
+            throw new UnsupportedOperationException("Binding to " + event + " not yet implemented");
+        }
+        return (E) endEvent;
+    }
+
+    /**
+     * Declares the corresponding event of each constant of an enum lifecycle.
+     *
+     * @param <E> the type of lifecycle events
+     */
+    public static final class Builder<E extends Enum<E>> {
+
+        final E[] events;
+        final Object[] endEvents;
+
+        Builder(Class<E> eventType) {
+            this.events = eventType.getEnumConstants();
+            this.endEvents = new Object[events.length];
+        }
+
+        /**
+         * Declares that bindings made at an event end at another.
+         *
+         * @param event the event at which the binding is made
+         * @param endEvent the event which ends the binding
+         * @return this builder
+         */
+        @Nonnull
+        public Builder<E> map(@Nonnull E event, @Nonnull E endEvent) {
+            checkNotNull(endEvent, "endEvent == null");
+            return declare(event, endEvent);
+        }
+
+        /**
+         * Declares that an event is outside of the lifecycle, so bindings made at it end immediately.
+         *
+         * @param event the event
+         * @return this builder
+         */
+        @Nonnull
+        public Builder<E> outside(@Nonnull E event) {
+            return declare(event, OUTSIDE);
+        }
+
+        /**
+         * Declares that an event cannot be bound to; bindings made at it fail with an
+         * {@link UnsupportedOperationException}.
+         *
+         * @param event the event
+         * @return this builder
+         */
+        @Nonnull
+        public Builder<E> unsupported(@Nonnull E event) {
+            return declare(event, UNSUPPORTED);
+        }
+
+        private Builder<E> declare(E event, Object endEvent) {
+            checkNotNull(event, "event == null");
+            int index = event.ordinal();
+            if (endEvents[index] != null) {
+                throw new IllegalArgumentException(event + " is already declared");
+            }
+            endEvents[index] = endEvent;
+            return this;
+        }
+
+        /**
+         * @return the table
+         * @throws IllegalStateException if any event has not been declared
+         */
+        @Nonnull
+        @CheckReturnValue
+        public CorrespondingEvents<E> build() {
+            List<E> missing = new ArrayList<>();
+            for (int i = 0; i < events.length; i++) {
+                if (endEvents[i] == null) {
+                    missing.add(events[i]);
+                }
+            }
+            if (!missing.isEmpty()) {
+                throw new IllegalStateException("No corresponding event declared for " + missing);
+            }
+            return new CorrespondingEvents<>(endEvents.clone());
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Determines the lifecycle event which should end a binding made at a given event.
+ * <p>
+ * Unlike a plain {@link io.reactivex.rxjava3.functions.Function}, which has to throw an
+ * {@link OutsideLifecycleException} when the lifecycle is already over, this reports it by returning
+ * null, so binding late does not cost an exception.
+ *
+ * @param <E> the type of lifecycle events
+ */
+public interface CorrespondingEventsFunction<E> {
+
+    /**
+     * @param event the latest lifecycle event at the time of binding
+     * @return the event which should end the binding, or null if the event is outside of the lifecycle
+     * @throws Exception if the event is not supported
+     */
+    @Nullable
+    E apply(@Nonnull E event) throws Exception;
+}
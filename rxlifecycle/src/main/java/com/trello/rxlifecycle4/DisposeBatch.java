@@ -0,0 +1,55 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import org.reactivestreams.Subscription;
+
+import java.util.List;
+
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.exceptions.Exceptions;
+import io.reactivex.rxjava3.plugins.RxJavaPlugins;
+
+/**
+ * Disposes the sources of the bindings which a {@link LifecycleHub} ended in one pass, on the dispose scheduler.
+ */
+final class DisposeBatch implements Runnable {
+
+    // Disposables of Observable sources and Subscriptions of Flowable sources
+    final List<Object> batch;
+
+    DisposeBatch(List<Object> batch) {
+        this.batch = batch;
+    }
+
+    @Override
+    public void run() {
+        for (Object source : batch) {
+            // One failing source must not keep the rest of the batch subscribed
+            try {
+                if (source instanceof Disposable) {
+                    ((Disposable) source).dispose();
+                }
+                else {
+                    ((Subscription) source).cancel();
+                }
+            }
+            catch (Throwable t) {
+                Exceptions.throwIfFatal(t);
+                RxJavaPlugins.onError(t);
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import java.util.EnumSet;
+
+import io.reactivex.rxjava3.functions.Predicate;
+
+/**
+ * A fixed set of lifecycle events, kept as a bitmask indexed by ordinal so that testing an event neither
+ * hashes nor calls {@code equals}.
+ */
+final class EventMask<E extends Enum<E>> implements Predicate<E> {
+
+    final long[] words;
+
+    /**
+     * @return a mask of the events currently in the set; later changes to the set are not reflected
+     */
+    static <E extends Enum<E>> EventMask<E> of(EnumSet<E> events) {
+        int maxOrdinal = 0;
+        for (E event : events) {
+            maxOrdinal = Math.max(maxOrdinal, event.ordinal());
+        }
+
+        long[] words = new long[(maxOrdinal >>> 6) + 1];
+        for (E event : events) {
+            int ordinal = event.ordinal();
+            words[ordinal >>> 6] |= 1L << ordinal;
+        }
+        return new EventMask<>(words);
+    }
+
+    EventMask(long[] words) {
+        this.words = words;
+    }
+
+    boolean contains(E event) {
+        return contains(event.ordinal());
+    }
+
+    boolean contains(int ordinal) {
+        int index = ordinal >>> 6;
+        return index < words.length && (words[index] & (1L << ordinal)) != 0;
+    }
+
+    @Override
+    public boolean test(E event) {
+        return contains(event);
+    }
+}
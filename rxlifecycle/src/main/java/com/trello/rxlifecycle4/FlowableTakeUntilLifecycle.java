@@ -0,0 +1,224 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.FlowableSubscriber;
+import io.reactivex.rxjava3.core.Observer;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.internal.disposables.DisposableHelper;
+import io.reactivex.rxjava3.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.rxjava3.plugins.RxJavaPlugins;
+
+/**
+ * Equivalent of {@link Flowable#takeUntil(Publisher)}, specialized for lifecycle bindings.
+ * <p>
+ * Only the first signal of the lifecycle matters, so it is observed as the {@code Observable} it already is,
+ * rather than being adapted into a backpressured {@code Flowable} for every subscription. Requests are passed
+ * straight through to the upstream.
+ */
+final class FlowableTakeUntilLifecycle<T> extends Flowable<T> {
+
+    final Publisher<T> upstream;
+    final LifecycleTransformer<?> transformer;
+
+    FlowableTakeUntilLifecycle(Publisher<T> upstream, LifecycleTransformer<?> transformer) {
+        this.upstream = upstream;
+        this.transformer = transformer;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super T> subscriber) {
+        RxLifecycleMonitor monitor = RxLifecycle.monitor;
+        TakeUntilLifecycleSubscriber<T> parent =
+            new TakeUntilLifecycleSubscriber<>(subscriber, monitor, monitor.onSubscribe(transformer));
+        subscriber.onSubscribe(parent);
+        transformer.observable.subscribe(parent.other);
+        upstream.subscribe(parent);
+    }
+
+    static final class TakeUntilLifecycleSubscriber<T> extends AtomicReference<Subscription>
+        implements FlowableSubscriber<T>, Subscription {
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicIntegerFieldUpdater<TakeUntilLifecycleSubscriber> STATE =
+            AtomicIntegerFieldUpdater.newUpdater(TakeUntilLifecycleSubscriber.class, "state");
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicReferenceFieldUpdater<TakeUntilLifecycleSubscriber, Throwable> TERMINAL =
+            AtomicReferenceFieldUpdater.newUpdater(TakeUntilLifecycleSubscriber.class, Throwable.class, "terminal");
+
+        // Marks normal completion in the terminal slot (which otherwise holds the error)
+        static final Throwable COMPLETE = new Throwable("Completed");
+
+        // Marks cancellation in the terminal slot, so that the monitor sees exactly one ending
+        static final Throwable CANCELLED = new Throwable("Cancelled");
+
+        final Subscriber<? super T> downstream;
+        final OtherObserver other;
+        final RxLifecycleMonitor monitor;
+        final Object token;
+
+        // Requests made before the upstream subscribed
+        final AtomicLong requested = new AtomicLong();
+
+        // Non-zero while an item is being emitted or once a terminal event has been claimed
+        volatile int state;
+
+        // The first terminal event to arrive, from either the upstream or the lifecycle
+        volatile Throwable terminal;
+
+        TakeUntilLifecycleSubscriber(Subscriber<? super T> downstream, RxLifecycleMonitor monitor, Object token) {
+            this.downstream = downstream;
+            this.other = new OtherObserver(this);
+            this.monitor = monitor;
+            this.token = token;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            SubscriptionHelper.deferredSetOnce(this, requested, s);
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (state == 0 && STATE.compareAndSet(this, 0, 1)) {
+                downstream.onNext(t);
+                if (STATE.decrementAndGet(this) != 0) {
+                    // A terminal event arrived while emitting; it is up to us to deliver it
+                    terminate();
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            DisposableHelper.dispose(other);
+            if (claimTerminal(e)) {
+                monitor.onUpstreamEnd(token);
+                emitTerminal();
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            DisposableHelper.dispose(other);
+            if (claimTerminal(COMPLETE)) {
+                monitor.onUpstreamEnd(token);
+                emitTerminal();
+            }
+        }
+
+        void lifecycleError(Throwable e) {
+            SubscriptionHelper.cancel(this);
+            if (claimTerminal(e)) {
+                monitor.onLifecycleEnd(token, null);
+                emitTerminal();
+            }
+        }
+
+        void lifecycleComplete(Object event, Disposable lifecycle) {
+            Subscription current = getAndSet(SubscriptionHelper.CANCELLED);
+            if (current != null && current != SubscriptionHelper.CANCELLED
+                && !LifecycleHub.deferCancel(lifecycle, current)) {
+                current.cancel();
+            }
+            if (claimTerminal(COMPLETE)) {
+                monitor.onLifecycleEnd(token, event);
+                emitTerminal();
+            }
+        }
+
+        boolean claimTerminal(Throwable t) {
+            if (TERMINAL.compareAndSet(this, null, t)) {
+                return true;
+            }
+            if (t != COMPLETE && terminal != CANCELLED) {
+                RxJavaPlugins.onError(t);
+            }
+            return false;
+        }
+
+        void emitTerminal() {
+            if (STATE.getAndIncrement(this) == 0) {
+                terminate();
+            }
+        }
+
+        void terminate() {
+            Throwable t = terminal;
+            if (t == COMPLETE) {
+                downstream.onComplete();
+            }
+            else {
+                downstream.onError(t);
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            SubscriptionHelper.deferredRequest(this, requested, n);
+        }
+
+        @Override
+        public void cancel() {
+            SubscriptionHelper.cancel(this);
+            DisposableHelper.dispose(other);
+            if (TERMINAL.compareAndSet(this, null, CANCELLED)) {
+                monitor.onDispose(token);
+            }
+        }
+    }
+
+    static final class OtherObserver extends AtomicReference<Disposable> implements Observer<Object> {
+
+        final TakeUntilLifecycleSubscriber<?> parent;
+
+        OtherObserver(TakeUntilLifecycleSubscriber<?> parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            DisposableHelper.setOnce(this, d);
+        }
+
+        @Override
+        public void onNext(Object event) {
+            Disposable lifecycle = get();
+            DisposableHelper.dispose(this);
+            parent.lifecycleComplete(event, lifecycle);
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            parent.lifecycleError(e);
+        }
+
+        @Override
+        public void onComplete() {
+            parent.lifecycleComplete(null, null);
+        }
+    }
+}
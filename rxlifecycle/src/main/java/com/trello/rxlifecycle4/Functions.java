@@ -14,9 +14,6 @@
 
 package com.trello.rxlifecycle4;
 
-import java.util.concurrent.CancellationException;
-
-import io.reactivex.rxjava3.core.Completable;
 import io.reactivex.rxjava3.exceptions.Exceptions;
 import io.reactivex.rxjava3.functions.Function;
 import io.reactivex.rxjava3.functions.Predicate;
@@ -43,12 +40,62 @@ final class Functions {
         }
     };
 
-    static final Function<Object, Completable> CANCEL_COMPLETABLE = new Function<Object, Completable>() {
-        @Override
-        public Completable apply(Object ignore) throws Exception {
-            return Completable.error(new CancellationException());
+    /**
+     * @return a predicate matching the given event; enum events are compared by identity rather than through a
+     * virtual {@code equals} call, which is megamorphic once several lifecycle types share the call site
+     */
+    static <R> Predicate<R> isEvent(final R event) {
+        if (event instanceof Enum) {
+            return new Predicate<R>() {
+                @Override
+                public boolean test(R lifecycleEvent) {
+                    return lifecycleEvent == event;
+                }
+            };
         }
-    };
+        return new Predicate<R>() {
+            @Override
+            public boolean test(R lifecycleEvent) {
+                return lifecycleEvent.equals(event);
+            }
+        };
+    }
+
+    /**
+     * @return true if a lifecycle event is the one a binding waits for, comparing enum events by identity
+     */
+    static boolean isEndEvent(Object endEvent, Object lifecycleEvent) {
+        return endEvent == lifecycleEvent || !(endEvent instanceof Enum) && lifecycleEvent.equals(endEvent);
+    }
+
+    /**
+     * Adapts a function which throws {@link OutsideLifecycleException} to one which returns null instead.
+     */
+    static <E> CorrespondingEventsFunction<E> correspondingEvents(final Function<E, E> correspondingEvents) {
+        return new CorrespondingEventsFunction<E>() {
+            @Override
+            public E apply(E event) throws Exception {
+                E endEvent;
+                try {
+                    endEvent = correspondingEvents.apply(event);
+                }
+                catch (OutsideLifecycleException e) {
+                    return null;
+                }
+                catch (Exception e) {
+                    throw e;
+                }
+                catch (Throwable t) {
+                    throw Exceptions.propagate(t);
+                }
+
+                if (endEvent == null) {
+                    throw new NullPointerException("correspondingEvents returned null for " + event);
+                }
+                return endEvent;
+            }
+        };
+    }
 
     private Functions() {
         throw new AssertionError("No instances!");
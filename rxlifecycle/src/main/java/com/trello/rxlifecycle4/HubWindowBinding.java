@@ -0,0 +1,95 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.reactivex.rxjava3.core.Observer;
+
+/**
+ * A binding of an {@link ObservableHubWindow}, which emits whether the lifecycle is within its window every time
+ * that changes, and completes at the end of the lifecycle. It is linked to the events which would change that.
+ */
+final class HubWindowBinding<E extends Enum<E>> extends LifecycleHub.Binding<E> {
+
+    final Observer<? super Boolean> windowDownstream;
+    final EventMask<E> window;
+    final EventMask<E> ending;
+    final EventMask<E> entries;
+    final EventMask<E> exits;
+
+    // Guarded by the hub, as is the inherited error, which is set once the binding should end
+    boolean inside;
+
+    // Only accessed while draining
+    boolean emitted;
+
+    final AtomicInteger wip = new AtomicInteger();
+
+    HubWindowBinding(LifecycleHub<E> hub, Observer<? super Boolean> downstream, ObservableHubWindow<E> windows) {
+        super(hub, null, null);
+        this.windowDownstream = downstream;
+        this.window = windows.window;
+        this.ending = windows.ending;
+        this.entries = windows.entries;
+        this.exits = windows.exits;
+    }
+
+    @Override
+    void end(E event) {
+        drain();
+    }
+
+    // Emits the latest state, so that moves racing with the initial one arrive in order
+    void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+
+        int missed = 1;
+        for (;;) {
+            boolean in;
+            Throwable t;
+            synchronized (hub) {
+                in = inside;
+                t = error;
+            }
+
+            if (get()) {
+                return;
+            }
+            if (t != null) {
+                if (compareAndSet(false, true)) {
+                    if (t != LifecycleHub.COMPLETE) {
+                        windowDownstream.onError(t);
+                    }
+                    else {
+                        windowDownstream.onComplete();
+                    }
+                }
+                return;
+            }
+            if (in != emitted) {
+                emitted = in;
+                windowDownstream.onNext(in);
+            }
+
+            missed = wip.addAndGet(-missed);
+            if (missed == 0) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * The {@link CancellationException} signalled to sources that are cancelled by their lifecycle.
+ * Skips its stack trace when {@link RxLifecycle#setStacklessExceptions(boolean)} is enabled.
+ */
+final class LifecycleCancellationException extends CancellationException {
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        if (RxLifecycle.isStacklessExceptions()) {
+            return this;
+        }
+        return super.fillInStackTrace();
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.Observer;
+import io.reactivex.rxjava3.disposables.Disposable;
+
+import static com.trello.rxlifecycle4.internal.Preconditions.checkNotNull;
+
+/**
+ * A minimal replacement for a {@code BehaviorSubject} that only carries lifecycle events.
+ * <p>
+ * New observers receive the latest event (if any) followed by every later one. Lifecycles never terminate,
+ * so unlike a subject there is no completion or error. Observers are kept in a copy-on-write array, as a
+ * {@code PublishSubject} does, and events are delivered to a snapshot of it without locking; only an observer
+ * which is still being handed the latest event when a new one arrives takes a lock, to queue the new one.
+ * <p>
+ * {@link #onNext(Enum)} must be called serially, as is already the case for lifecycle callbacks;
+ * observers may subscribe and dispose from any thread.
+ *
+ * @param <E> the type of lifecycle events
+ */
+@ParametersAreNonnullByDefault
+public final class LifecycleEventSource<E extends Enum<E>> {
+
+    /**
+     * @return a new source, which has not yet emitted an event
+     */
+    @Nonnull
+    @CheckReturnValue
+    public static <E extends Enum<E>> LifecycleEventSource<E> create() {
+        return new LifecycleEventSource<>();
+    }
+
+    static final Node<?>[] EMPTY = new Node<?>[0];
+
+    final Observable<E> observable = new SourceObservable<>(this);
+
+    final AtomicReference<Node<E>[]> observers = new AtomicReference<>(Node.<E>array(0));
+
+    // Both guarded by this, so that a new observer reads the latest event along with its count
+    E lastEvent;
+    int eventCount;
+
+    private LifecycleEventSource() {
+    }
+
+    /**
+     * Emits a lifecycle event to all current observers.
+     *
+     * @param event the event
+     */
+    public void onNext(@Nonnull E event) {
+        checkNotNull(event, "event == null");
+
+        int count;
+        synchronized (this) {
+            lastEvent = event;
+            count = ++eventCount;
+        }
+
+        for (Node<E> node : observers.get()) {
+            node.emitNext(event, count);
+        }
+    }
+
+    /**
+     * @return a read-only view of this source; the same instance is returned every time
+     */
+    @Nonnull
+    @CheckReturnValue
+    public Observable<E> asObservable() {
+        return observable;
+    }
+
+    void subscribe(Observer<? super E> observer) {
+        Node<E> node = new Node<>(this, observer);
+        observer.onSubscribe(node);
+        if (add(node)) {
+            if (node.disposed) {
+                remove(node);
+            }
+            else {
+                node.emitFirst();
+            }
+        }
+    }
+
+    boolean add(Node<E> node) {
+        for (;;) {
+            Node<E>[] current = observers.get();
+            if (node.disposed) {
+                return false;
+            }
+
+            int length = current.length;
+            Node<E>[] next = Node.array(length + 1);
+            System.arraycopy(current, 0, next, 0, length);
+            next[length] = node;
+            if (observers.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    void remove(Node<E> node) {
+        for (;;) {
+            Node<E>[] current = observers.get();
+            int length = current.length;
+            int index = -1;
+            for (int i = 0; i < length; i++) {
+                if (current[i] == node) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                return;
+            }
+
+            Node<E>[] next = Node.array(length - 1);
+            System.arraycopy(current, 0, next, 0, index);
+            System.arraycopy(current, index + 1, next, index, length - index - 1);
+            if (observers.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    static final class Node<E extends Enum<E>> implements Disposable {
+
+        final LifecycleEventSource<E> source;
+        final Observer<? super E> downstream;
+
+        // All guarded by this, and only used until the latest event has been handed over
+        int since;
+        boolean started;
+        boolean emitting;
+        // Events which arrived while replaying, in order; only allocated if any did
+        ArrayDeque<E> pending;
+
+        // Set by the emitting thread once the latest event has been handed over; events go straight through after
+        boolean fastPath;
+
+        volatile boolean disposed;
+
+        Node(LifecycleEventSource<E> source, Observer<? super E> downstream) {
+            this.source = source;
+            this.downstream = downstream;
+        }
+
+        @SuppressWarnings("unchecked")
+        static <E extends Enum<E>> Node<E>[] array(int length) {
+            return length == 0 ? (Node<E>[]) EMPTY : (Node<E>[]) new Node<?>[length];
+        }
+
+        // Replays the latest event, along with any events that arrived while doing so
+        void emitFirst() {
+            E event;
+            synchronized (this) {
+                if (disposed || started) {
+                    // An event already came through before the replay could start, so it is not needed
+                    return;
+                }
+                synchronized (source) {
+                    since = source.eventCount;
+                    event = source.lastEvent;
+                }
+                started = true;
+                emitting = event != null;
+            }
+
+            while (event != null) {
+                if (disposed) {
+                    return;
+                }
+                downstream.onNext(event);
+                synchronized (this) {
+                    event = pending != null ? pending.poll() : null;
+                    emitting = event != null;
+                }
+            }
+        }
+
+        void emitNext(E event, int count) {
+            if (disposed) {
+                return;
+            }
+            if (!fastPath) {
+                synchronized (this) {
+                    if (disposed) {
+                        return;
+                    }
+                    if (count <= since) {
+                        // Subscribed after this event started, so it has been handed over as the latest one
+                        return;
+                    }
+                    if (emitting) {
+                        if (pending == null) {
+                            pending = new ArrayDeque<>(2);
+                        }
+                        pending.offer(event);
+                        return;
+                    }
+                    started = true;
+                }
+                fastPath = true;
+            }
+            downstream.onNext(event);
+        }
+
+        @Override
+        public void dispose() {
+            if (!disposed) {
+                disposed = true;
+                source.remove(this);
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+    }
+
+    static final class SourceObservable<E extends Enum<E>> extends Observable<E> {
+
+        final LifecycleEventSource<E> source;
+
+        SourceObservable(LifecycleEventSource<E> source) {
+            this.source = source;
+        }
+
+        @Override
+        protected void subscribeActual(Observer<? super E> observer) {
+            source.subscribe(observer);
+        }
+    }
+}
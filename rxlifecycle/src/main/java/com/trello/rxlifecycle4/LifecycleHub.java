@@ -0,0 +1,855 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.Observer;
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.exceptions.Exceptions;
+import io.reactivex.rxjava3.functions.Function;
+import io.reactivex.rxjava3.internal.disposables.DisposableHelper;
+
+import static com.trello.rxlifecycle4.internal.Preconditions.checkNotNull;
+
+/**
+ * Shares a single subscription to a lifecycle between all of the sources bound to it.
+ * <p>
+ * Binding through {@link RxLifecycle} subscribes each source to the lifecycle separately, so every
+ * event is broadcast to every binding. A hub instead subscribes to the lifecycle once and keeps its
+ * bindings bucketed by the event that ends them; an event only touches the bindings it ends.
+ * <p>
+ * The transformers returned by a hub are cached, so binding in a hot path (such as while binding list items)
+ * does not allocate a transformer per call. They behave the same as those returned by
+ * {@link RxLifecycle#bindUntilEvent(Observable, Object)} and {@link RxLifecycle#bind(Observable, Function)}.
+ * The hub subscribes to the lifecycle when the first binding is subscribed, and disposes that subscription once
+ * the last binding is gone, subscribing again for the next one. It relies on the lifecycle replaying its latest
+ * event to do so, as a {@link io.reactivex.rxjava3.subjects.BehaviorSubject} does, and should have the same scope
+ * as the lifecycle itself (e.g. one hub per {@link LifecycleProvider}).
+ * <p>
+ * All bindings ended by an event are ended together, in one pass. If a dispose scheduler is set with
+ * {@link RxLifecycle#setDisposeScheduler(Scheduler)}, the sources of those bindings are disposed afterwards
+ * as a single batch on that scheduler.
+ *
+ * @param <E> the type of lifecycle events
+ */
+@ParametersAreNonnullByDefault
+public final class LifecycleHub<E extends Enum<E>> {
+
+    /**
+     * Creates a hub for a lifecycle.
+     *
+     * @param lifecycle the lifecycle sequence
+     * @param eventType the class of the lifecycle's events
+     * @param correspondingEvents a function which tells {@link #bindToLifecycle()} when to unsubscribe
+     * @return a hub which subscribes to the lifecycle on demand
+     */
+    @Nonnull
+    @CheckReturnValue
+    public static <E extends Enum<E>> LifecycleHub<E> create(@Nonnull Observable<E> lifecycle,
+                                                             @Nonnull Class<E> eventType,
+                                                             @Nonnull Function<E, E> correspondingEvents) {
+        checkNotNull(lifecycle, "lifecycle == null");
+        checkNotNull(eventType, "eventType == null");
+        checkNotNull(correspondingEvents, "correspondingEvents == null");
+        return createCorresponding(lifecycle, eventType, Functions.correspondingEvents(correspondingEvents));
+    }
+
+    /**
+     * Creates a hub for a lifecycle.
+     * <p>
+     * This behaves the same as {@link #create(Observable, Class, Function)}, except that the correspondingEvents
+     * function reports that the lifecycle is over by returning null rather than by throwing an
+     * {@link OutsideLifecycleException}.
+     *
+     * @param lifecycle the lifecycle sequence
+     * @param eventType the class of the lifecycle's events
+     * @param correspondingEvents a function which tells {@link #bindToLifecycle()} when to unsubscribe
+     * @return a hub which subscribes to the lifecycle on demand
+     */
+    @Nonnull
+    @CheckReturnValue
+    public static <E extends Enum<E>> LifecycleHub<E> createCorresponding(
+        @Nonnull Observable<E> lifecycle,
+        @Nonnull Class<E> eventType,
+        @Nonnull CorrespondingEventsFunction<E> correspondingEvents) {
+        checkNotNull(lifecycle, "lifecycle == null");
+        checkNotNull(eventType, "eventType == null");
+        checkNotNull(correspondingEvents, "correspondingEvents == null");
+        return new LifecycleHub<>(lifecycle, eventType.getEnumConstants().length,
+            CorrespondingEventTable.of(eventType, correspondingEvents));
+    }
+
+    // Marks bindings which should complete because the lifecycle completed
+    static final Throwable COMPLETE = new Throwable("Lifecycle completed");
+
+    static final int UNLINKED = -1;
+
+    final Observable<E> lifecycle;
+    final CorrespondingEventsFunction<E> correspondingEvents;
+
+    // Heads of the lists of bindings waiting on each event, indexed by ordinal. The extra slot holds
+    // bindToLifecycle() bindings made before the lifecycle emitted anything. bindUntilAnyEvent() and
+    // bindWhileIn() bindings wait on several events, so they are represented by a link in each of their lists.
+    final Binding<E>[] heads;
+    final int unresolved;
+
+    // Transformers are reusable and do not depend on their type, so each is created once and handed
+    // out to every caller. Racing callers may each create one, which is harmless.
+    final LifecycleTransformer<?>[] untilEventTransformers;
+    LifecycleTransformer<?> correspondingEventTransformer;
+
+    // All guarded by this. The connection is the observer subscribed to the lifecycle, if any; lastEvent is what
+    // it last saw.
+    HubObserver<E> connection;
+    E lastEvent;
+    Throwable terminal;
+
+    private LifecycleHub(Observable<E> lifecycle, int eventCount, CorrespondingEventsFunction<E> correspondingEvents) {
+        this.lifecycle = lifecycle;
+        this.correspondingEvents = correspondingEvents;
+        this.heads = Binding.array(eventCount + 1);
+        this.unresolved = eventCount;
+        this.untilEventTransformers = new LifecycleTransformer<?>[eventCount];
+    }
+
+    /**
+     * Binds a source until a specific event occurs.
+     *
+     * @param event the event that triggers unsubscription
+     * @return a reusable {@link LifecycleTransformer} which unsubscribes when the event triggers.
+     */
+    @Nonnull
+    @CheckReturnValue
+    @SuppressWarnings("unchecked")
+    public <T> LifecycleTransformer<T> bindUntilEvent(@Nonnull E event) {
+        checkNotNull(event, "event == null");
+        int index = event.ordinal();
+        LifecycleTransformer<?> transformer = untilEventTransformers[index];
+        if (transformer == null) {
+            transformer = new LifecycleTransformer<>(new UntilEventObservable<>(this, event));
+            untilEventTransformers[index] = transformer;
+        }
+        return (LifecycleTransformer<T>) transformer;
+    }
+
+    /**
+     * Binds a source until the event corresponding to the latest one occurs.
+     *
+     * @return a reusable {@link LifecycleTransformer} which unsubscribes at the correct time.
+     */
+    @Nonnull
+    @CheckReturnValue
+    @SuppressWarnings("unchecked")
+    public <T> LifecycleTransformer<T> bindToLifecycle() {
+        LifecycleTransformer<?> transformer = correspondingEventTransformer;
+        if (transformer == null) {
+            transformer = new LifecycleTransformer<>(new CorrespondingEventObservable<>(this));
+            correspondingEventTransformer = transformer;
+        }
+        return (LifecycleTransformer<T>) transformer;
+    }
+
+    /**
+     * Binds a source until any of a set of events occurs.
+     * <p>
+     * Unlike the other transformers of a hub, these are not cached, as the set could be anything.
+     *
+     * @param events the events that trigger unsubscription; the set is copied
+     * @return a reusable {@link LifecycleTransformer} which unsubscribes when any of the events triggers.
+     * @throws IllegalArgumentException if the set is empty
+     */
+    @Nonnull
+    @CheckReturnValue
+    public <T> LifecycleTransformer<T> bindUntilAnyEvent(@Nonnull EnumSet<E> events) {
+        checkNotNull(events, "events == null");
+        if (events.isEmpty()) {
+            throw new IllegalArgumentException("events is empty");
+        }
+        return new LifecycleTransformer<>(new AnyEventObservable<>(this, EventMask.of(events)));
+    }
+
+    /**
+     * Binds a source to a window of the lifecycle, subscribing it again every time the window is re-entered.
+     * <p>
+     * These are not cached either. Like the other bindings of a hub they share its subscription to the lifecycle,
+     * and an event only touches the bindings whose source it subscribes or disposes. Unlike
+     * {@link RxLifecycle#bindWhileIn(Observable, Enum, Enum)}, a binding ends as soon as the lifecycle reaches an
+     * event outside of it (e.g. {@code DESTROY}), rather than only when the lifecycle completes.
+     *
+     * @param start the event at which the source is subscribed
+     * @param end the event at which the source is disposed; must be declared after {@code start}
+     * @return a reusable {@link LifecycleWindowTransformer} which subscribes the source within the window.
+     * @throws IllegalArgumentException if {@code end} is not declared after {@code start}
+     * @see RxLifecycle#bindWhileIn(Observable, Enum, Enum)
+     */
+    @Nonnull
+    @CheckReturnValue
+    public <T> LifecycleWindowTransformer<T> bindWhileIn(@Nonnull E start, @Nonnull E end) {
+        checkNotNull(start, "start == null");
+        checkNotNull(end, "end == null");
+        EnumSet<E> window = LifecycleWindowTransformer.window(start, end);
+        return new LifecycleWindowTransformer<>(new ObservableHubWindow<>(this, window, ending(start)));
+    }
+
+    /**
+     * Holds back a source's items while the lifecycle is paused, and delivers them once it resumes.
+     * <p>
+     * These are not cached either, and share the hub's subscription to the lifecycle. Unlike
+     * {@link RxLifecycle#bufferWhilePaused(Observable, Enum, Enum, int)}, a binding ends at the end of the lifecycle
+     * (e.g. {@code DESTROY}) even if it never resumes: the held back items are dropped, the source is disposed and
+     * the sequence completes, or ends with the completion or error that the source had sent while paused.
+     *
+     * @param pause the event from which items are held back
+     * @param resume the event at which held back items are delivered
+     * @param capacity how many items to hold back at most
+     * @return a reusable {@link LifecyclePauseTransformer} that holds back items while paused
+     * @throws IllegalArgumentException if {@code pause} and {@code resume} are the same event or the capacity is
+     * not positive
+     * @see RxLifecycle#bufferWhilePaused(Observable, Enum, Enum, int)
+     */
+    @Nonnull
+    @CheckReturnValue
+    public <T> LifecyclePauseTransformer<T> bufferWhilePaused(@Nonnull E pause, @Nonnull E resume, int capacity) {
+        checkNotNull(pause, "pause == null");
+        checkNotNull(resume, "resume == null");
+        EnumSet<E> paused = LifecyclePauseTransformer.paused(pause, resume);
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity <= 0: " + capacity);
+        }
+        return new LifecyclePauseTransformer<>(new ObservableHubWindow<>(this, paused, ending(pause)), capacity);
+    }
+
+    // The events which end the lifecycle
+    private EnumSet<E> ending(E any) {
+        EnumSet<E> ending = EnumSet.noneOf(any.getDeclaringClass());
+        for (E event : any.getDeclaringClass().getEnumConstants()) {
+            if (isTerminal(event)) {
+                ending.add(event);
+            }
+        }
+        return ending;
+    }
+
+    /**
+     * @return the hub that a transformer's lifecycle belongs to, or null if it was not made by a hub
+     */
+    @Nullable
+    static LifecycleHub<?> of(Observable<?> observable) {
+        if (observable instanceof UntilEventObservable) {
+            return ((UntilEventObservable<?>) observable).hub;
+        }
+        if (observable instanceof CorrespondingEventObservable) {
+            return ((CorrespondingEventObservable<?>) observable).hub;
+        }
+        if (observable instanceof AnyEventObservable) {
+            return ((AnyEventObservable<?>) observable).hub;
+        }
+        if (observable instanceof ObservableHubWindow) {
+            return ((ObservableHubWindow<?>) observable).hub;
+        }
+        return null;
+    }
+
+    /**
+     * @return true if the event ends the lifecycle, i.e. bindings made at it would end immediately
+     */
+    boolean isTerminal(E event) {
+        try {
+            return correspondingEvents.apply(event) == null;
+        }
+        catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Takes over disposing a bound source if its binding is being ended as part of a batch.
+     *
+     * @param lifecycle the disposable the binding's lifecycle observer was subscribed with
+     * @param source the bound source's disposable
+     * @return true if the source will be disposed with the batch, false if the caller should dispose it
+     */
+    static boolean deferDispose(@Nullable Disposable lifecycle, Disposable source) {
+        return defer(lifecycle, source);
+    }
+
+    /**
+     * Takes over cancelling a bound source if its binding is being ended as part of a batch.
+     *
+     * @param lifecycle the disposable the binding's lifecycle observer was subscribed with
+     * @param source the bound source's subscription
+     * @return true if the source will be cancelled with the batch, false if the caller should cancel it
+     */
+    static boolean deferCancel(@Nullable Disposable lifecycle, Subscription source) {
+        return defer(lifecycle, source);
+    }
+
+    private static boolean defer(@Nullable Disposable lifecycle, Object source) {
+        if (lifecycle instanceof Binding) {
+            List<Object> batch = ((Binding<?>) lifecycle).batch;
+            if (batch != null) {
+                batch.add(source);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void add(Binding<E> binding, E event) {
+        HubObserver<E> connect;
+        boolean end = false;
+        synchronized (this) {
+            if (terminal != null) {
+                binding.error = terminal;
+                end = true;
+            }
+            else if (event == lastEvent) {
+                // Same as filtering a replaying lifecycle, where the latest event is seen on subscribe
+                end = true;
+            }
+            else if (!binding.isDisposed()) {
+                link(binding, event.ordinal());
+            }
+            connect = connect();
+        }
+
+        if (end) {
+            binding.end(event);
+        }
+        if (connect != null) {
+            lifecycle.subscribe(connect);
+        }
+    }
+
+    void addAny(Binding<E> binding) {
+        HubObserver<E> connect;
+        boolean end = false;
+        E event;
+        synchronized (this) {
+            event = lastEvent;
+
+            if (terminal != null) {
+                binding.error = terminal;
+                end = true;
+            }
+            else if (event != null && binding.mask.contains(event)) {
+                // Same as filtering a replaying lifecycle, where the latest event is seen on subscribe
+                end = true;
+            }
+            else if (!binding.isDisposed()) {
+                linkAny(binding, binding.mask);
+            }
+            connect = connect();
+        }
+
+        if (end) {
+            binding.end(event);
+        }
+        if (connect != null) {
+            lifecycle.subscribe(connect);
+        }
+    }
+
+    void addWindow(HubWindowBinding<E> binding) {
+        HubObserver<E> connect;
+        synchronized (this) {
+            E event = lastEvent;
+
+            if (terminal != null) {
+                binding.error = terminal;
+            }
+            else if (event != null && binding.ending.contains(event)) {
+                binding.error = COMPLETE;
+            }
+            else if (!binding.isDisposed()) {
+                binding.inside = event != null && binding.window.contains(event);
+                linkAny(binding, binding.inside ? binding.exits : binding.entries);
+            }
+            connect = connect();
+        }
+
+        binding.drain();
+        if (connect != null) {
+            lifecycle.subscribe(connect);
+        }
+    }
+
+    void addCorresponding(Binding<E> binding) {
+        HubObserver<E> connect;
+        boolean end;
+        E event;
+        synchronized (this) {
+            event = lastEvent;
+
+            if (terminal != null) {
+                binding.error = terminal;
+                end = true;
+            }
+            else if (binding.isDisposed()) {
+                end = false;
+            }
+            else if (event == null) {
+                // Resolved when the first event comes in
+                link(binding, unresolved);
+                end = false;
+            }
+            else {
+                end = !resolve(binding, event);
+            }
+            connect = connect();
+        }
+
+        if (end) {
+            binding.end(event);
+        }
+        if (connect != null) {
+            lifecycle.subscribe(connect);
+        }
+    }
+
+    void remove(Binding<E> binding) {
+        HubObserver<E> disconnect;
+        synchronized (this) {
+            unlink(binding);
+            unlinkAny(binding);
+            disconnect = disconnect();
+        }
+
+        if (disconnect != null) {
+            disconnect.dispose();
+        }
+    }
+
+    void onEvent(HubObserver<E> observer, E event) {
+        Binding<E> ended;
+        HubObserver<E> disconnect;
+        synchronized (this) {
+            if (observer != connection) {
+                // Left over from a connection which has been disposed
+                return;
+            }
+            lastEvent = event;
+            ended = collect(detach(event.ordinal()), null, event);
+
+            Binding<E> binding = detach(unresolved);
+            while (binding != null) {
+                Binding<E> next = binding.next;
+                if (!resolve(binding, event)) {
+                    binding.next = ended;
+                    ended = binding;
+                }
+                binding = next;
+            }
+            disconnect = disconnect();
+        }
+
+        if (disconnect != null) {
+            disconnect.dispose();
+        }
+        end(ended, event);
+    }
+
+    void onTerminate(HubObserver<E> observer, Throwable t) {
+        Binding<E> ended = null;
+        E event;
+        synchronized (this) {
+            if (observer != connection) {
+                return;
+            }
+            connection = null;
+            terminal = t;
+            event = lastEvent;
+            for (int i = 0; i < heads.length; i++) {
+                ended = collect(detach(i), ended, null);
+            }
+            for (Binding<E> binding = ended; binding != null; binding = binding.next) {
+                binding.error = t;
+            }
+        }
+
+        observer.dispose();
+        end(ended, event);
+    }
+
+    // Must be called while holding the lock. Returns the observer to subscribe to the lifecycle with, if the hub has
+    // bindings but is not subscribed yet.
+    @Nullable
+    private HubObserver<E> connect() {
+        if (connection != null || terminal != null || isEmpty()) {
+            return null;
+        }
+        HubObserver<E> observer = new HubObserver<>(this);
+        connection = observer;
+        return observer;
+    }
+
+    // Must be called while holding the lock. Returns the observer to dispose, if the hub is subscribed to the
+    // lifecycle but has no bindings left. The next binding subscribes again, and sees the latest event replayed.
+    @Nullable
+    private HubObserver<E> disconnect() {
+        HubObserver<E> observer = connection;
+        if (observer == null || !isEmpty()) {
+            return null;
+        }
+        connection = null;
+        lastEvent = null;
+        return observer;
+    }
+
+    // Must be called while holding the lock
+    private boolean isEmpty() {
+        for (Binding<E> head : heads) {
+            if (head != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Must be called while holding the lock. Returns false if the binding has already ended, and should not be linked.
+    private boolean resolve(Binding<E> binding, E event) {
+        E endEvent;
+        try {
+            endEvent = correspondingEvents.apply(event);
+        }
+        catch (Throwable t) {
+            Exceptions.throwIfFatal(t);
+            binding.error = t;
+            return false;
+        }
+
+        if (endEvent == null) {
+            // Outside of the lifecycle, so it is already over
+            return false;
+        }
+
+        link(binding, endEvent.ordinal());
+        return true;
+    }
+
+    // Must be called while holding the lock
+    private void link(Binding<E> binding, int index) {
+        Binding<E> head = heads[index];
+        binding.bucket = index;
+        binding.prev = null;
+        binding.next = head;
+        if (head != null) {
+            head.prev = binding;
+        }
+        heads[index] = binding;
+    }
+
+    // Must be called while holding the lock
+    private void linkAny(Binding<E> binding, EventMask<E> mask) {
+        int count = 0;
+        for (int i = 0; i < unresolved; i++) {
+            if (mask.contains(i)) {
+                count++;
+            }
+        }
+
+        Binding<E>[] links = Binding.array(count);
+        for (int i = 0, j = 0; i < unresolved; i++) {
+            if (mask.contains(i)) {
+                Binding<E> link = new Binding<>(binding);
+                link(link, i);
+                links[j++] = link;
+            }
+        }
+        binding.links = links;
+    }
+
+    // Must be called while holding the lock
+    private void move(HubWindowBinding<E> binding, E event) {
+        if (binding.ending.contains(event)) {
+            binding.error = COMPLETE;
+        }
+        else {
+            binding.inside = binding.window.contains(event);
+            linkAny(binding, binding.inside ? binding.exits : binding.entries);
+        }
+    }
+
+    // Must be called while holding the lock
+    private void unlinkAny(Binding<E> binding) {
+        Binding<E>[] links = binding.links;
+        if (links != null) {
+            binding.links = null;
+            for (Binding<E> link : links) {
+                unlink(link);
+            }
+        }
+    }
+
+    // Must be called while holding the lock
+    private void unlink(Binding<E> binding) {
+        int index = binding.bucket;
+        if (index == UNLINKED) {
+            return;
+        }
+
+        Binding<E> prev = binding.prev;
+        Binding<E> next = binding.next;
+        if (prev != null) {
+            prev.next = next;
+        }
+        else {
+            heads[index] = next;
+        }
+        if (next != null) {
+            next.prev = prev;
+        }
+
+        binding.bucket = UNLINKED;
+        binding.prev = null;
+        binding.next = null;
+    }
+
+    // Must be called while holding the lock; returns the detached list, still chained through next
+    private Binding<E> detach(int index) {
+        Binding<E> head = heads[index];
+        heads[index] = null;
+        for (Binding<E> binding = head; binding != null; binding = binding.next) {
+            binding.bucket = UNLINKED;
+            binding.prev = null;
+        }
+        return head;
+    }
+
+    // Must be called while holding the lock. Prepends a detached list to ended, replacing each link with the
+    // binding it stands for, whose other links are unlinked so that it is only collected once. A window binding
+    // which the event moves in or out of its window is linked again, to the events which move it back.
+    private Binding<E> collect(Binding<E> detached, Binding<E> ended, @Nullable E event) {
+        while (detached != null) {
+            Binding<E> next = detached.next;
+            Binding<E> binding = detached;
+            if (binding.owner != null) {
+                binding = binding.owner;
+                unlinkAny(binding);
+                if (event != null && binding instanceof HubWindowBinding) {
+                    move((HubWindowBinding<E>) binding, event);
+                }
+            }
+            binding.next = ended;
+            ended = binding;
+            detached = next;
+        }
+        return ended;
+    }
+
+    private static <E extends Enum<E>> void end(Binding<E> binding, E event) {
+        if (binding == null) {
+            return;
+        }
+
+        Scheduler scheduler = RxLifecycle.disposeScheduler;
+        List<Object> batch = scheduler != null ? new ArrayList<>() : null;
+        while (binding != null) {
+            Binding<E> next = binding.next;
+            binding.next = null;
+            binding.batch = batch;
+            binding.end(event);
+            binding.batch = null;
+            binding = next;
+        }
+
+        if (batch != null && !batch.isEmpty()) {
+            scheduler.scheduleDirect(new DisposeBatch(batch));
+        }
+    }
+
+    static class Binding<E extends Enum<E>> extends AtomicBoolean implements Disposable {
+
+        final LifecycleHub<E> hub;
+        final Observer<? super E> downstream;
+
+        // Guarded by the hub
+        Binding<E> prev;
+        Binding<E> next;
+        int bucket = UNLINKED;
+
+        // Set before the binding is ended if it ends with something other than an event
+        Throwable error;
+
+        // Set while the binding is being ended, to collect the sources to dispose after the whole batch
+        List<Object> batch;
+
+        // The events which end a bindUntilAnyEvent() binding
+        final EventMask<E> mask;
+
+        // Guarded by the hub; the links a bindUntilAnyEvent() binding has in the lists of its events
+        Binding<E>[] links;
+
+        // Set on a link, to the bindUntilAnyEvent() binding it stands for
+        final Binding<E> owner;
+
+        Binding(LifecycleHub<E> hub, Observer<? super E> downstream) {
+            this(hub, downstream, null);
+        }
+
+        Binding(LifecycleHub<E> hub, Observer<? super E> downstream, @Nullable EventMask<E> mask) {
+            this.hub = hub;
+            this.downstream = downstream;
+            this.mask = mask;
+            this.owner = null;
+        }
+
+        Binding(Binding<E> owner) {
+            this.hub = owner.hub;
+            this.downstream = null;
+            this.mask = null;
+            this.owner = owner;
+        }
+
+        @SuppressWarnings("unchecked")
+        static <E extends Enum<E>> Binding<E>[] array(int length) {
+            return (Binding<E>[]) new Binding<?>[length];
+        }
+
+        void end(E event) {
+            if (compareAndSet(false, true)) {
+                Throwable t = error;
+                if (t == null) {
+                    downstream.onNext(event);
+                }
+                else if (t == COMPLETE) {
+                    downstream.onComplete();
+                }
+                else {
+                    downstream.onError(t);
+                }
+            }
+        }
+
+        @Override
+        public void dispose() {
+            if (compareAndSet(false, true)) {
+                hub.remove(this);
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return get();
+        }
+    }
+
+    static final class UntilEventObservable<E extends Enum<E>> extends Observable<E> {
+
+        final LifecycleHub<E> hub;
+        final E event;
+
+        UntilEventObservable(LifecycleHub<E> hub, E event) {
+            this.hub = hub;
+            this.event = event;
+        }
+
+        @Override
+        protected void subscribeActual(Observer<? super E> observer) {
+            Binding<E> binding = new Binding<>(hub, observer);
+            observer.onSubscribe(binding);
+            hub.add(binding, event);
+        }
+    }
+
+    static final class CorrespondingEventObservable<E extends Enum<E>> extends Observable<E> {
+
+        final LifecycleHub<E> hub;
+
+        CorrespondingEventObservable(LifecycleHub<E> hub) {
+            this.hub = hub;
+        }
+
+        @Override
+        protected void subscribeActual(Observer<? super E> observer) {
+            Binding<E> binding = new Binding<>(hub, observer);
+            observer.onSubscribe(binding);
+            hub.addCorresponding(binding);
+        }
+    }
+
+    static final class AnyEventObservable<E extends Enum<E>> extends Observable<E> {
+
+        final LifecycleHub<E> hub;
+        final EventMask<E> mask;
+
+        AnyEventObservable(LifecycleHub<E> hub, EventMask<E> mask) {
+            this.hub = hub;
+            this.mask = mask;
+        }
+
+        @Override
+        protected void subscribeActual(Observer<? super E> observer) {
+            Binding<E> binding = new Binding<>(hub, observer, mask);
+            observer.onSubscribe(binding);
+            hub.addAny(binding);
+        }
+    }
+
+    static final class HubObserver<E extends Enum<E>> extends AtomicReference<Disposable>
+        implements Observer<E>, Disposable {
+
+        final LifecycleHub<E> hub;
+
+        HubObserver(LifecycleHub<E> hub) {
+            this.hub = hub;
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            // The hub may have let go of this connection before the subscription arrives
+            DisposableHelper.setOnce(this, d);
+        }
+
+        @Override
+        public void onNext(E event) {
+            hub.onEvent(this, event);
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            hub.onTerminate(this, e);
+        }
+
+        @Override
+        public void onComplete() {
+            hub.onTerminate(this, COMPLETE);
+        }
+
+        @Override
+        public void dispose() {
+            DisposableHelper.dispose(this);
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return DisposableHelper.isDisposed(get());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnull;
+
+/**
+ * A {@link LifecycleProvider} whose bindings go through a {@link LifecycleHub}.
+ *
+ * The hub offers the bindings that go beyond those of a provider, such as
+ * {@link LifecycleHub#bindUntilAnyEvent(java.util.EnumSet)}, and they share its subscription to the lifecycle.
+ */
+public interface LifecycleHubProvider<E extends Enum<E>> extends LifecycleProvider<E> {
+    /**
+     * @return the hub that this provider's bindings go through; the same instance is returned every time
+     */
+    @Nonnull
+    @CheckReturnValue
+    LifecycleHub<E> lifecycleHub();
+}
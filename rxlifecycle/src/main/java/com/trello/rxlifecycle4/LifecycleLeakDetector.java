@@ -0,0 +1,270 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import io.reactivex.rxjava3.core.Observer;
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.disposables.Disposable;
+
+import static com.trello.rxlifecycle4.internal.Preconditions.checkNotNull;
+
+/**
+ * A debugging aid which reports bindings that are still subscribed some time after their
+ * {@link LifecycleProvider} reached the end of its lifecycle (e.g. {@code DESTROY}, {@code DETACH} or
+ * {@code ON_DESTROY}); such bindings usually keep the provider from being garbage collected.
+ * <p>
+ * Install it as the {@link RxLifecycleMonitor}, typically only in debug builds:
+ * <pre>{@code
+ * RxLifecycle.setMonitor(LifecycleLeakDetector.create(5, TimeUnit.SECONDS, AndroidSchedulers.mainThread(),
+ *     new LifecycleLeakDetector.Listener() {
+ *         public void onLeak(LifecycleLeakDetector.LeakedBindingException leak) {
+ *             Log.w("RxLifecycle", leak);
+ *         }
+ *     }));
+ * }</pre>
+ * Bindings are tracked per provider, which covers the providers that bind through a {@link LifecycleHub} (such as
+ * those in rxlifecycle-components and rxlifecycle-android-lifecycle). Capturing where each binding was made is
+ * expensive, so this should not be left on in production.
+ */
+@ParametersAreNonnullByDefault
+public final class LifecycleLeakDetector extends RxLifecycleMonitor {
+
+    /**
+     * Receives the bindings which outlive their lifecycle.
+     */
+    public interface Listener {
+
+        /**
+         * @param leak describes the binding; its stack trace is where the binding was subscribed
+         */
+        void onLeak(@Nonnull LeakedBindingException leak);
+    }
+
+    /**
+     * Describes a binding which outlived its lifecycle. Its stack trace is where the binding was subscribed.
+     */
+    public static final class LeakedBindingException extends RuntimeException {
+
+        LeakedBindingException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Creates a detector.
+     *
+     * @param gracePeriod how long after the end of a lifecycle its bindings may still be subscribed
+     * @param unit the unit of the grace period
+     * @param scheduler the scheduler used to wait out the grace period and to call the listener
+     * @param listener receives the leaked bindings
+     * @return a detector, which has to be installed with {@link RxLifecycle#setMonitor(RxLifecycleMonitor)}
+     */
+    @Nonnull
+    @CheckReturnValue
+    public static LifecycleLeakDetector create(long gracePeriod,
+                                               @Nonnull TimeUnit unit,
+                                               @Nonnull Scheduler scheduler,
+                                               @Nonnull Listener listener) {
+        checkNotNull(unit, "unit == null");
+        checkNotNull(scheduler, "scheduler == null");
+        checkNotNull(listener, "listener == null");
+        return new LifecycleLeakDetector(gracePeriod, unit, scheduler, listener);
+    }
+
+    final long gracePeriod;
+    final TimeUnit unit;
+    final Scheduler scheduler;
+    final Listener listener;
+
+    // Live bindings per hub, guarded by this. Weak so the detector never keeps a provider around itself, which
+    // is also why records only hold their hub weakly.
+    final Map<LifecycleHub<?>, Set<Record>> bindings = new WeakHashMap<>();
+
+    private LifecycleLeakDetector(long gracePeriod, TimeUnit unit, Scheduler scheduler, Listener listener) {
+        this.gracePeriod = gracePeriod;
+        this.unit = unit;
+        this.scheduler = scheduler;
+        this.listener = listener;
+    }
+
+    @Nullable
+    @Override
+    public Object onSubscribe(LifecycleTransformer<?> transformer) {
+        return track(LifecycleHub.of(transformer.observable));
+    }
+
+    @Nullable
+    @Override
+    public Object onSubscribe(LifecycleWindowTransformer<?> transformer) {
+        return track(LifecycleHub.of(transformer.windows));
+    }
+
+    @Nullable
+    private Object track(@Nullable LifecycleHub<?> hub) {
+        if (hub == null) {
+            return null;
+        }
+
+        Record record = new Record(hub);
+        boolean watch;
+        synchronized (this) {
+            Set<Record> records = bindings.get(hub);
+            watch = records == null;
+            if (watch) {
+                records = new LinkedHashSet<>();
+                bindings.put(hub, records);
+            }
+            records.add(record);
+        }
+
+        if (watch) {
+            watch(hub);
+        }
+        return record;
+    }
+
+    @Override
+    public void onLifecycleEnd(@Nullable Object token, @Nullable Object event) {
+        end(token);
+    }
+
+    @Override
+    public void onUpstreamEnd(@Nullable Object token) {
+        end(token);
+    }
+
+    @Override
+    public void onDispose(@Nullable Object token) {
+        end(token);
+    }
+
+    private void end(@Nullable Object token) {
+        if (token instanceof Record) {
+            Record record = (Record) token;
+            LifecycleHub<?> hub = record.hub.get();
+            if (hub == null) {
+                // Its entry has been cleared along with the hub
+                return;
+            }
+            synchronized (this) {
+                Set<Record> records = bindings.get(hub);
+                if (records != null) {
+                    records.remove(record);
+                }
+            }
+        }
+    }
+
+    private <E extends Enum<E>> void watch(LifecycleHub<E> hub) {
+        hub.lifecycle.subscribe(new LifecycleWatcher<>(this, hub));
+    }
+
+    void onTerminal(final LifecycleHub<?> hub, final String ending) {
+        scheduler.scheduleDirect(new Runnable() {
+            @Override
+            public void run() {
+                report(hub, ending);
+            }
+        }, gracePeriod, unit);
+    }
+
+    void report(LifecycleHub<?> hub, String ending) {
+        List<Record> leaked;
+        synchronized (this) {
+            Set<Record> records = bindings.remove(hub);
+            if (records == null || records.isEmpty()) {
+                return;
+            }
+            leaked = new ArrayList<>(records);
+        }
+
+        for (Record record : leaked) {
+            LeakedBindingException leak = new LeakedBindingException("Binding is still subscribed "
+                + unit.toMillis(gracePeriod) + " ms after " + ending);
+            leak.setStackTrace(record.site.getStackTrace());
+            listener.onLeak(leak);
+        }
+    }
+
+    static final class Record {
+
+        final WeakReference<LifecycleHub<?>> hub;
+
+        // Where the binding was subscribed
+        final Throwable site = new Throwable();
+
+        Record(LifecycleHub<?> hub) {
+            this.hub = new WeakReference<LifecycleHub<?>>(hub);
+        }
+    }
+
+    static final class LifecycleWatcher<E extends Enum<E>> implements Observer<E> {
+
+        final LifecycleLeakDetector detector;
+        final LifecycleHub<E> hub;
+
+        Disposable upstream;
+        boolean done;
+
+        LifecycleWatcher(LifecycleLeakDetector detector, LifecycleHub<E> hub) {
+            this.detector = detector;
+            this.hub = hub;
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            upstream = d;
+        }
+
+        @Override
+        public void onNext(E event) {
+            if (!done && hub.isTerminal(event)) {
+                done = true;
+                upstream.dispose();
+                detector.onTerminal(hub, event.toString());
+            }
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            if (!done) {
+                done = true;
+                detector.onTerminal(hub, "the lifecycle failed");
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (!done) {
+                done = true;
+                detector.onTerminal(hub, "the lifecycle completed");
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import java.util.EnumSet;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.ObservableSource;
+import io.reactivex.rxjava3.core.ObservableTransformer;
+
+import static com.trello.rxlifecycle4.internal.Preconditions.checkNotNull;
+
+/**
+ * Transformer that holds back a source's items while a lifecycle is paused, and delivers them once it resumes.
+ * <p>
+ * The source stays subscribed throughout. While paused, items go into a ring buffer of a fixed capacity; once it
+ * is full, each new item overwrites the oldest one, so a resume delivers the latest items in their original order.
+ * Items are only ever dropped while paused: those arriving while a resume is still delivering the held back ones
+ * queue up behind them however many there are.
+ * <p>
+ * A completion or error of the source is delivered after the buffered items. The end of the lifecycle drops the
+ * buffered items and disposes the source, then completes the sequence or delivers the source's completion or error
+ * if it already had one; an error of the lifecycle likewise drops them and is delivered right away. Transformers
+ * made by a {@link LifecycleHub} see the lifecycle end at its terminal event, e.g. {@code DESTROY}, while those
+ * made with {@link RxLifecycle#bufferWhilePaused(Observable, Enum, Enum, int)} only see it once the lifecycle
+ * sequence completes.
+ */
+@ParametersAreNonnullByDefault
+public final class LifecyclePauseTransformer<T> implements ObservableTransformer<T, T> {
+
+    // Whether the lifecycle is paused, for every lifecycle event
+    final Observable<Boolean> pauses;
+    final int capacity;
+
+    LifecyclePauseTransformer(Observable<Boolean> pauses, int capacity) {
+        checkNotNull(pauses, "pauses == null");
+        this.pauses = pauses;
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return the events from {@code pause} until, but excluding, {@code resume}, wrapping around at the end of the
+     * enum
+     * @throws IllegalArgumentException if {@code pause} and {@code resume} are the same event
+     */
+    static <E extends Enum<E>> EnumSet<E> paused(E pause, E resume) {
+        if (pause == resume) {
+            throw new IllegalArgumentException("pause and resume are both " + pause);
+        }
+
+        EnumSet<E> paused;
+        if (pause.compareTo(resume) < 0) {
+            paused = EnumSet.range(pause, resume);
+            paused.remove(resume);
+        }
+        else {
+            paused = EnumSet.complementOf(EnumSet.range(resume, pause));
+            paused.add(pause);
+        }
+        return paused;
+    }
+
+    @Override
+    public ObservableSource<T> apply(Observable<T> upstream) {
+        return new ObservablePauseBuffer<>(upstream, pauses, capacity);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) { return true; }
+        if (o == null || getClass() != o.getClass()) { return false; }
+
+        LifecyclePauseTransformer<?> that = (LifecyclePauseTransformer<?>) o;
+
+        return capacity == that.capacity && pauses.equals(that.pauses);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * pauses.hashCode() + capacity;
+    }
+
+    @Override
+    public String toString() {
+        return "LifecyclePauseTransformer{" +
+            "pauses=" + pauses +
+            ", capacity=" + capacity +
+            '}';
+    }
+}
@@ -18,7 +18,6 @@ import org.reactivestreams.Publisher;
 
 import javax.annotation.ParametersAreNonnullByDefault;
 
-import io.reactivex.rxjava3.core.BackpressureStrategy;
 import io.reactivex.rxjava3.core.Completable;
 import io.reactivex.rxjava3.core.CompletableSource;
 import io.reactivex.rxjava3.core.CompletableTransformer;
@@ -33,18 +32,25 @@ import io.reactivex.rxjava3.core.ObservableTransformer;
 import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.core.SingleSource;
 import io.reactivex.rxjava3.core.SingleTransformer;
+import io.reactivex.rxjava3.parallel.ParallelFlowable;
+import io.reactivex.rxjava3.parallel.ParallelTransformer;
 
 import static com.trello.rxlifecycle4.internal.Preconditions.checkNotNull;
 
 /**
  * Transformer that continues a subscription until a second Observable emits an event.
+ * <p>
+ * Every source type observes the lifecycle Observable as is, so applying a transformer only assembles a single
+ * operator around the source and derives nothing from the lifecycle; reusing one transformer costs no more than
+ * the first application did.
  */
 @ParametersAreNonnullByDefault
 public final class LifecycleTransformer<T> implements ObservableTransformer<T, T>,
                                                       FlowableTransformer<T, T>,
                                                       SingleTransformer<T, T>,
                                                       MaybeTransformer<T, T>,
-                                                      CompletableTransformer
+                                                      CompletableTransformer,
+                                                      ParallelTransformer<T, T>
 {
     final Observable<?> observable;
 
@@ -55,27 +61,32 @@ public final class LifecycleTransformer<T> implements ObservableTransformer<T, T
 
     @Override
     public ObservableSource<T> apply(Observable<T> upstream) {
-        return upstream.takeUntil(observable);
+        return new ObservableTakeUntilLifecycle<>(upstream, this);
     }
 
     @Override
     public Publisher<T> apply(Flowable<T> upstream) {
-        return upstream.takeUntil(observable.toFlowable(BackpressureStrategy.LATEST));
+        return new FlowableTakeUntilLifecycle<>(upstream, this);
     }
 
     @Override
     public SingleSource<T> apply(Single<T> upstream) {
-        return upstream.takeUntil(observable.firstOrError());
+        return new SingleTakeUntilLifecycle<>(upstream, this);
     }
 
     @Override
     public MaybeSource<T> apply(Maybe<T> upstream) {
-        return upstream.takeUntil(observable.firstElement());
+        return new MaybeTakeUntilLifecycle<>(upstream, this);
     }
 
     @Override
     public CompletableSource apply(Completable upstream) {
-        return Completable.ambArray(upstream, observable.flatMapCompletable(Functions.CANCEL_COMPLETABLE));
+        return new CompletableTakeUntilLifecycle(upstream, this);
+    }
+
+    @Override
+    public ParallelFlowable<T> apply(ParallelFlowable<T> upstream) {
+        return new ParallelTakeUntilLifecycle<>(upstream, this);
     }
 
     @Override
@@ -0,0 +1,230 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import org.reactivestreams.Publisher;
+
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import io.reactivex.rxjava3.core.BackpressureStrategy;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.FlowableTransformer;
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.ObservableSource;
+import io.reactivex.rxjava3.core.ObservableTransformer;
+import io.reactivex.rxjava3.functions.Action;
+import io.reactivex.rxjava3.functions.Consumer;
+import io.reactivex.rxjava3.functions.Function;
+import io.reactivex.rxjava3.functions.Supplier;
+
+import static com.trello.rxlifecycle4.internal.Preconditions.checkNotNull;
+
+/**
+ * Transformer that keeps a source subscribed only while a lifecycle is within a window of events, e.g. from
+ * {@code START} until {@code STOP}, and subscribes it again every time the lifecycle re-enters the window.
+ * <p>
+ * The bound sequence is subscribed once and lives until the lifecycle ends; the source is what gets
+ * subscribed and disposed along with the window. Bindings made through a {@link LifecycleHub} (and so through
+ * the components and providers) end at the event which ends the lifecycle, e.g. {@code DESTROY}, while those made
+ * with {@link RxLifecycle#bindWhileIn(Observable, Enum, Enum)} end when the lifecycle sequence completes.
+ * <p>
+ * A source which completes inside the window is subscribed again at the next entry, while an error from either
+ * the source or the lifecycle ends the bound sequence.
+ * <p>
+ * Only {@link Observable} and {@link Flowable} can be bound this way, as the other types cannot emit again after
+ * being resubscribed.
+ */
+@ParametersAreNonnullByDefault
+public final class LifecycleWindowTransformer<T> implements ObservableTransformer<T, T>,
+                                                            FlowableTransformer<T, T>
+{
+    // Whether the lifecycle is within the window, only emitted when that changes
+    final Observable<Boolean> windows;
+
+    LifecycleWindowTransformer(Observable<Boolean> windows) {
+        checkNotNull(windows, "windows == null");
+        this.windows = windows;
+    }
+
+    /**
+     * @return the events from {@code start} until, but excluding, {@code end}
+     * @throws IllegalArgumentException if {@code end} is not declared after {@code start}
+     */
+    static <E extends Enum<E>> EnumSet<E> window(E start, E end) {
+        if (start.compareTo(end) >= 0) {
+            throw new IllegalArgumentException(end + " is not declared after " + start);
+        }
+
+        EnumSet<E> window = EnumSet.range(start, end);
+        window.remove(end);
+        return window;
+    }
+
+    @Override
+    public ObservableSource<T> apply(final Observable<T> upstream) {
+        return Observable.defer(new Supplier<ObservableSource<T>>() {
+            @Override
+            public ObservableSource<T> get() {
+                RxLifecycleMonitor monitor = RxLifecycle.monitor;
+                if (monitor == RxLifecycleMonitor.NONE) {
+                    return closing().switchMap(new ObservableWindow<>(upstream));
+                }
+
+                Object token = monitor.onSubscribe(LifecycleWindowTransformer.this);
+                MonitoredBinding binding = new MonitoredBinding(monitor, token);
+                return closing(windows.doOnTerminate(binding.lifecycleEnd))
+                    .switchMap(new ObservableWindow<>(upstream.doOnError(binding.upstreamEnd)))
+                    .doOnDispose(binding.dispose);
+            }
+        });
+    }
+
+    @Override
+    public Publisher<T> apply(final Flowable<T> upstream) {
+        return Flowable.defer(new Supplier<Publisher<T>>() {
+            @Override
+            public Publisher<T> get() {
+                RxLifecycleMonitor monitor = RxLifecycle.monitor;
+                if (monitor == RxLifecycleMonitor.NONE) {
+                    return closing().toFlowable(BackpressureStrategy.LATEST).switchMap(new FlowableWindow<>(upstream));
+                }
+
+                Object token = monitor.onSubscribe(LifecycleWindowTransformer.this);
+                MonitoredBinding binding = new MonitoredBinding(monitor, token);
+                return closing(windows.doOnTerminate(binding.lifecycleEnd))
+                    .toFlowable(BackpressureStrategy.LATEST)
+                    .switchMap(new FlowableWindow<>(upstream.doOnError(binding.upstreamEnd)))
+                    .doOnCancel(binding.dispose);
+            }
+        });
+    }
+
+    private Observable<Boolean> closing() {
+        return closing(windows);
+    }
+
+    // Leaves the window once the lifecycle completes, as switchMap only completes along with the last source
+    private static Observable<Boolean> closing(Observable<Boolean> windows) {
+        return windows.concatWith(Observable.just(Boolean.FALSE));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) { return true; }
+        if (o == null || getClass() != o.getClass()) { return false; }
+
+        LifecycleWindowTransformer<?> that = (LifecycleWindowTransformer<?>) o;
+
+        return windows.equals(that.windows);
+    }
+
+    @Override
+    public int hashCode() {
+        return windows.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "LifecycleWindowTransformer{" +
+            "windows=" + windows +
+            '}';
+    }
+
+    /**
+     * Reports a single subscription of the bound sequence to a monitor, exactly once however it ends.
+     */
+    static final class MonitoredBinding extends AtomicBoolean {
+
+        final RxLifecycleMonitor monitor;
+        final Object token;
+
+        final Action lifecycleEnd = new Action() {
+            @Override
+            public void run() {
+                if (compareAndSet(false, true)) {
+                    monitor.onLifecycleEnd(token, null);
+                }
+            }
+        };
+
+        final Consumer<Throwable> upstreamEnd = new Consumer<Throwable>() {
+            @Override
+            public void accept(Throwable t) {
+                if (compareAndSet(false, true)) {
+                    monitor.onUpstreamEnd(token);
+                }
+            }
+        };
+
+        final Action dispose = new Action() {
+            @Override
+            public void run() {
+                if (compareAndSet(false, true)) {
+                    monitor.onDispose(token);
+                }
+            }
+        };
+
+        MonitoredBinding(RxLifecycleMonitor monitor, Object token) {
+            this.monitor = monitor;
+            this.token = token;
+        }
+    }
+
+    static final class InWindow<E extends Enum<E>> implements Function<E, Boolean> {
+
+        final EventMask<E> window;
+
+        InWindow(EventMask<E> window) {
+            this.window = window;
+        }
+
+        @Override
+        public Boolean apply(E event) {
+            return window.contains(event);
+        }
+    }
+
+    static final class ObservableWindow<T> implements Function<Boolean, Observable<T>> {
+
+        final Observable<T> upstream;
+
+        ObservableWindow(Observable<T> upstream) {
+            this.upstream = upstream;
+        }
+
+        @Override
+        public Observable<T> apply(Boolean inWindow) {
+            return inWindow ? upstream : Observable.<T>empty();
+        }
+    }
+
+    static final class FlowableWindow<T> implements Function<Boolean, Flowable<T>> {
+
+        final Flowable<T> upstream;
+
+        FlowableWindow(Flowable<T> upstream) {
+            this.upstream = upstream;
+        }
+
+        @Override
+        public Flowable<T> apply(Boolean inWindow) {
+            return inWindow ? upstream : Flowable.<T>empty();
+        }
+    }
+}
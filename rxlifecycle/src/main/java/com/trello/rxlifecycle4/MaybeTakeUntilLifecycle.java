@@ -0,0 +1,197 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import io.reactivex.rxjava3.core.Maybe;
+import io.reactivex.rxjava3.core.MaybeObserver;
+import io.reactivex.rxjava3.core.MaybeSource;
+import io.reactivex.rxjava3.core.Observer;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.internal.disposables.DisposableHelper;
+import io.reactivex.rxjava3.plugins.RxJavaPlugins;
+
+/**
+ * Equivalent of {@code maybe.takeUntil(lifecycle.firstElement())}: the first lifecycle event, or the lifecycle
+ * completing, completes the {@link Maybe}.
+ * <p>
+ * Observes the lifecycle directly rather than through a {@code firstElement()} layer.
+ */
+final class MaybeTakeUntilLifecycle<T> extends Maybe<T> {
+
+    final MaybeSource<T> upstream;
+    final LifecycleTransformer<?> transformer;
+
+    MaybeTakeUntilLifecycle(MaybeSource<T> upstream, LifecycleTransformer<?> transformer) {
+        this.upstream = upstream;
+        this.transformer = transformer;
+    }
+
+    @Override
+    protected void subscribeActual(MaybeObserver<? super T> observer) {
+        RxLifecycleMonitor monitor = RxLifecycle.monitor;
+        TakeUntilLifecycleObserver<T> parent =
+            new TakeUntilLifecycleObserver<>(observer, monitor, monitor.onSubscribe(transformer));
+        observer.onSubscribe(parent);
+        transformer.observable.subscribe(parent.other);
+        upstream.subscribe(parent);
+    }
+
+    static final class TakeUntilLifecycleObserver<T> extends AtomicReference<Disposable>
+        implements MaybeObserver<T>, Disposable {
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicReferenceFieldUpdater<TakeUntilLifecycleObserver, Throwable> TERMINAL =
+            AtomicReferenceFieldUpdater.newUpdater(TakeUntilLifecycleObserver.class, Throwable.class, "terminal");
+
+        // Marks success or completion in the terminal slot (which otherwise holds the error)
+        static final Throwable COMPLETE = new Throwable("Completed");
+
+        // Marks disposal in the terminal slot, so that the monitor sees exactly one ending
+        static final Throwable DISPOSED = new Throwable("Disposed");
+
+        final MaybeObserver<? super T> downstream;
+        final OtherObserver other;
+        final RxLifecycleMonitor monitor;
+        final Object token;
+
+        // The first terminal event to arrive, from either the upstream or the lifecycle
+        volatile Throwable terminal;
+
+        TakeUntilLifecycleObserver(MaybeObserver<? super T> downstream, RxLifecycleMonitor monitor, Object token) {
+            this.downstream = downstream;
+            this.other = new OtherObserver(this);
+            this.monitor = monitor;
+            this.token = token;
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            DisposableHelper.setOnce(this, d);
+        }
+
+        @Override
+        public void onSuccess(T t) {
+            DisposableHelper.dispose(other);
+            if (claimTerminal(COMPLETE)) {
+                monitor.onUpstreamEnd(token);
+                downstream.onSuccess(t);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            DisposableHelper.dispose(other);
+            if (claimTerminal(COMPLETE)) {
+                monitor.onUpstreamEnd(token);
+                downstream.onComplete();
+            }
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            DisposableHelper.dispose(other);
+            if (claimTerminal(e)) {
+                monitor.onUpstreamEnd(token);
+                downstream.onError(e);
+            }
+        }
+
+        void lifecycleError(Throwable e) {
+            DisposableHelper.dispose(this);
+            if (claimTerminal(e)) {
+                monitor.onLifecycleEnd(token, null);
+                downstream.onError(e);
+            }
+        }
+
+        void lifecycleComplete() {
+            DisposableHelper.dispose(this);
+            if (claimTerminal(COMPLETE)) {
+                monitor.onLifecycleEnd(token, null);
+                downstream.onComplete();
+            }
+        }
+
+        void lifecycleEvent(Object event, Disposable lifecycle) {
+            Disposable current = getAndSet(DisposableHelper.DISPOSED);
+            if (current != null && current != DisposableHelper.DISPOSED
+                && !LifecycleHub.deferDispose(lifecycle, current)) {
+                current.dispose();
+            }
+            if (claimTerminal(COMPLETE)) {
+                monitor.onLifecycleEnd(token, event);
+                downstream.onComplete();
+            }
+        }
+
+        boolean claimTerminal(Throwable t) {
+            if (TERMINAL.compareAndSet(this, null, t)) {
+                return true;
+            }
+            if (t != COMPLETE && terminal != DISPOSED) {
+                RxJavaPlugins.onError(t);
+            }
+            return false;
+        }
+
+        @Override
+        public void dispose() {
+            DisposableHelper.dispose(this);
+            DisposableHelper.dispose(other);
+            if (TERMINAL.compareAndSet(this, null, DISPOSED)) {
+                monitor.onDispose(token);
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return DisposableHelper.isDisposed(get());
+        }
+    }
+
+    static final class OtherObserver extends AtomicReference<Disposable> implements Observer<Object> {
+
+        final TakeUntilLifecycleObserver<?> parent;
+
+        OtherObserver(TakeUntilLifecycleObserver<?> parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            DisposableHelper.setOnce(this, d);
+        }
+
+        @Override
+        public void onNext(Object event) {
+            Disposable lifecycle = get();
+            DisposableHelper.dispose(this);
+            parent.lifecycleEvent(event, lifecycle);
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            parent.lifecycleError(e);
+        }
+
+        @Override
+        public void onComplete() {
+            parent.lifecycleComplete();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import java.util.EnumSet;
+
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.Observer;
+
+/**
+ * Emits whether a {@link LifecycleHub}'s lifecycle is within a window, for {@link LifecycleHub#bindWhileIn} and
+ * {@link LifecycleHub#bufferWhilePaused}; the latter's window is the paused part of the lifecycle.
+ */
+final class ObservableHubWindow<E extends Enum<E>> extends Observable<Boolean> {
+
+    final LifecycleHub<E> hub;
+    final EventMask<E> window;
+    final EventMask<E> ending;
+    // The events which move a binding into the window, and those which move it out, including the ending ones
+    final EventMask<E> entries;
+    final EventMask<E> exits;
+
+    ObservableHubWindow(LifecycleHub<E> hub, EnumSet<E> window, EnumSet<E> ending) {
+        this.hub = hub;
+        this.window = EventMask.of(window);
+        this.ending = EventMask.of(ending);
+
+        EnumSet<E> entries = EnumSet.copyOf(window);
+        entries.addAll(ending);
+        this.entries = EventMask.of(entries);
+
+        EnumSet<E> exits = EnumSet.complementOf(window);
+        exits.addAll(ending);
+        this.exits = EventMask.of(exits);
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super Boolean> observer) {
+        HubWindowBinding<E> binding = new HubWindowBinding<>(hub, observer, this);
+        observer.onSubscribe(binding);
+        hub.addWindow(binding);
+    }
+}
@@ -0,0 +1,333 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.ObservableSource;
+import io.reactivex.rxjava3.core.Observer;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.internal.disposables.DisposableHelper;
+import io.reactivex.rxjava3.plugins.RxJavaPlugins;
+
+/**
+ * Buffers a source's items into a bounded ring while a lifecycle is paused; see {@link LifecyclePauseTransformer}.
+ * <p>
+ * The ring is a plain array which is allocated at the first pause and reused afterwards, so that neither passing
+ * items through nor buffering them allocates anything. Items which arrive while a resume is still delivering the
+ * held back ones have to queue up behind them; as the lifecycle is not paused anymore, the ring grows for those
+ * rather than overwriting anything.
+ */
+final class ObservablePauseBuffer<T> extends Observable<T> {
+
+    final ObservableSource<T> upstream;
+    final Observable<Boolean> pauses;
+    final int capacity;
+
+    ObservablePauseBuffer(ObservableSource<T> upstream, Observable<Boolean> pauses, int capacity) {
+        this.upstream = upstream;
+        this.pauses = pauses;
+        this.capacity = capacity;
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super T> observer) {
+        PauseBufferObserver<T> parent = new PauseBufferObserver<>(observer, capacity);
+        observer.onSubscribe(parent);
+        // The lifecycle goes first, so that a pause it replays already holds back the first items
+        pauses.subscribe(parent.other);
+        upstream.subscribe(parent);
+    }
+
+    static final class PauseBufferObserver<T> extends AtomicReference<Disposable>
+        implements Observer<T>, Disposable {
+
+        // Marks normal completion in the terminal slot (which otherwise holds the error)
+        static final Throwable COMPLETE = new Throwable("Completed");
+
+        final Observer<? super T> downstream;
+        final OtherObserver other;
+        final int capacity;
+
+        // All guarded by this
+        Object[] buffer;
+        int head;
+        int size;
+        boolean paused;
+        boolean emitting;
+        boolean done;
+        Throwable terminal;
+
+        volatile boolean disposed;
+
+        PauseBufferObserver(Observer<? super T> downstream, int capacity) {
+            this.downstream = downstream;
+            this.other = new OtherObserver(this);
+            this.capacity = capacity;
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            DisposableHelper.setOnce(this, d);
+        }
+
+        @Override
+        public void onNext(T t) {
+            synchronized (this) {
+                if (terminal != null || disposed) {
+                    return;
+                }
+                if (paused || emitting || size != 0) {
+                    offer(t);
+                    return;
+                }
+                emitting = true;
+            }
+
+            downstream.onNext(t);
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            terminate(e);
+        }
+
+        @Override
+        public void onComplete() {
+            terminate(COMPLETE);
+        }
+
+        void terminate(Throwable t) {
+            if (claimTerminal(t)) {
+                drain();
+            }
+        }
+
+        void lifecyclePaused(boolean pause) {
+            boolean drain;
+            synchronized (this) {
+                paused = pause;
+                drain = !pause && !emitting;
+                if (drain) {
+                    emitting = true;
+                }
+            }
+
+            if (drain) {
+                drain();
+            }
+        }
+
+        void lifecycleComplete() {
+            DisposableHelper.dispose(this);
+            boolean drain;
+            synchronized (this) {
+                // Items held back for a resume that will never come are dropped, while a terminal event the
+                // source already sent is still delivered
+                paused = false;
+                clear();
+                if (terminal == null) {
+                    terminal = COMPLETE;
+                }
+                drain = !emitting;
+                if (drain) {
+                    emitting = true;
+                }
+            }
+
+            if (drain) {
+                drain();
+            }
+        }
+
+        void lifecycleError(Throwable e) {
+            DisposableHelper.dispose(this);
+            synchronized (this) {
+                // Items held back for a resume that will never come are dropped
+                if (terminal == null) {
+                    paused = false;
+                    clear();
+                }
+            }
+            if (claimTerminal(e)) {
+                drain();
+            }
+        }
+
+        // Records the first terminal event, returning whether it is up to the caller to drain
+        boolean claimTerminal(Throwable t) {
+            boolean claimed;
+            boolean drain;
+            synchronized (this) {
+                claimed = terminal == null;
+                drain = claimed && !emitting;
+                if (claimed) {
+                    terminal = t;
+                    emitting = true;
+                }
+            }
+
+            if (!claimed && t != COMPLETE) {
+                RxJavaPlugins.onError(t);
+            }
+            return drain;
+        }
+
+        // Emits buffered items for as long as the lifecycle is not paused, then the terminal event if there is one
+        @SuppressWarnings("unchecked")
+        void drain() {
+            for (;;) {
+                Object item;
+                Throwable t = null;
+                synchronized (this) {
+                    if (disposed) {
+                        clear();
+                        emitting = false;
+                        return;
+                    }
+                    if (paused) {
+                        emitting = false;
+                        return;
+                    }
+                    if (size != 0) {
+                        item = poll();
+                    }
+                    else {
+                        emitting = false;
+                        if (terminal == null || done) {
+                            return;
+                        }
+                        done = true;
+                        item = null;
+                        t = terminal;
+                    }
+                }
+
+                if (t != null) {
+                    DisposableHelper.dispose(other);
+                    if (t == COMPLETE) {
+                        downstream.onComplete();
+                    }
+                    else {
+                        downstream.onError(t);
+                    }
+                    return;
+                }
+                downstream.onNext((T) item);
+            }
+        }
+
+        // Adds an item to the ring. While paused, a full ring drops its oldest items; otherwise it grows.
+        void offer(Object item) {
+            if (paused) {
+                while (size >= capacity) {
+                    poll();
+                }
+            }
+
+            Object[] b = buffer;
+            if (b == null) {
+                b = new Object[capacity];
+                buffer = b;
+            }
+            else if (size == b.length) {
+                b = grow(b);
+            }
+
+            int tail = head + size;
+            if (tail >= b.length) {
+                tail -= b.length;
+            }
+            b[tail] = item;
+            size++;
+        }
+
+        Object[] grow(Object[] b) {
+            Object[] grown = new Object[b.length * 2];
+            int first = b.length - head;
+            System.arraycopy(b, head, grown, 0, first);
+            System.arraycopy(b, 0, grown, first, head);
+            head = 0;
+            buffer = grown;
+            return grown;
+        }
+
+        Object poll() {
+            Object[] b = buffer;
+            Object item = b[head];
+            b[head] = null;
+            head = head + 1 == b.length ? 0 : head + 1;
+            size--;
+            return item;
+        }
+
+        void clear() {
+            if (buffer != null) {
+                Arrays.fill(buffer, null);
+            }
+            head = 0;
+            size = 0;
+        }
+
+        @Override
+        public void dispose() {
+            disposed = true;
+            DisposableHelper.dispose(this);
+            DisposableHelper.dispose(other);
+            synchronized (this) {
+                if (!emitting) {
+                    clear();
+                }
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+    }
+
+    static final class OtherObserver extends AtomicReference<Disposable> implements Observer<Boolean> {
+
+        final PauseBufferObserver<?> parent;
+
+        OtherObserver(PauseBufferObserver<?> parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            DisposableHelper.setOnce(this, d);
+        }
+
+        @Override
+        public void onNext(Boolean paused) {
+            parent.lifecyclePaused(paused);
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            parent.lifecycleError(e);
+        }
+
+        @Override
+        public void onComplete() {
+            parent.lifecycleComplete();
+        }
+    }
+}
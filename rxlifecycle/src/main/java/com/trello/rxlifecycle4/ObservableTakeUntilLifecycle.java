@@ -0,0 +1,214 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.ObservableSource;
+import io.reactivex.rxjava3.core.Observer;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.internal.disposables.DisposableHelper;
+import io.reactivex.rxjava3.plugins.RxJavaPlugins;
+
+/**
+ * Equivalent of {@link Observable#takeUntil(ObservableSource)}, specialized for lifecycle bindings.
+ * <p>
+ * The main observer doubles as the upstream's disposable container and serializes emissions against
+ * termination with a single state field, rather than allocating separate holders for each.
+ */
+final class ObservableTakeUntilLifecycle<T> extends Observable<T> {
+
+    final ObservableSource<T> upstream;
+    final LifecycleTransformer<?> transformer;
+
+    ObservableTakeUntilLifecycle(ObservableSource<T> upstream, LifecycleTransformer<?> transformer) {
+        this.upstream = upstream;
+        this.transformer = transformer;
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super T> observer) {
+        RxLifecycleMonitor monitor = RxLifecycle.monitor;
+        TakeUntilLifecycleObserver<T> parent =
+            new TakeUntilLifecycleObserver<>(observer, monitor, monitor.onSubscribe(transformer));
+        observer.onSubscribe(parent);
+        transformer.observable.subscribe(parent.other);
+        upstream.subscribe(parent);
+    }
+
+    static final class TakeUntilLifecycleObserver<T> extends AtomicReference<Disposable>
+        implements Observer<T>, Disposable {
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicIntegerFieldUpdater<TakeUntilLifecycleObserver> STATE =
+            AtomicIntegerFieldUpdater.newUpdater(TakeUntilLifecycleObserver.class, "state");
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicReferenceFieldUpdater<TakeUntilLifecycleObserver, Throwable> TERMINAL =
+            AtomicReferenceFieldUpdater.newUpdater(TakeUntilLifecycleObserver.class, Throwable.class, "terminal");
+
+        // Marks normal completion in the terminal slot (which otherwise holds the error)
+        static final Throwable COMPLETE = new Throwable("Completed");
+
+        // Marks disposal in the terminal slot, so that the monitor sees exactly one ending
+        static final Throwable DISPOSED = new Throwable("Disposed");
+
+        final Observer<? super T> downstream;
+        final OtherObserver other;
+        final RxLifecycleMonitor monitor;
+        final Object token;
+
+        // Non-zero while an item is being emitted or once a terminal event has been claimed
+        volatile int state;
+
+        // The first terminal event to arrive, from either the upstream or the lifecycle
+        volatile Throwable terminal;
+
+        TakeUntilLifecycleObserver(Observer<? super T> downstream, RxLifecycleMonitor monitor, Object token) {
+            this.downstream = downstream;
+            this.other = new OtherObserver(this);
+            this.monitor = monitor;
+            this.token = token;
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            DisposableHelper.setOnce(this, d);
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (state == 0 && STATE.compareAndSet(this, 0, 1)) {
+                downstream.onNext(t);
+                if (STATE.decrementAndGet(this) != 0) {
+                    // A terminal event arrived while emitting; it is up to us to deliver it
+                    terminate();
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            DisposableHelper.dispose(other);
+            if (claimTerminal(e)) {
+                monitor.onUpstreamEnd(token);
+                emitTerminal();
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            DisposableHelper.dispose(other);
+            if (claimTerminal(COMPLETE)) {
+                monitor.onUpstreamEnd(token);
+                emitTerminal();
+            }
+        }
+
+        void lifecycleError(Throwable e) {
+            DisposableHelper.dispose(this);
+            if (claimTerminal(e)) {
+                monitor.onLifecycleEnd(token, null);
+                emitTerminal();
+            }
+        }
+
+        void lifecycleComplete(Object event, Disposable lifecycle) {
+            Disposable current = getAndSet(DisposableHelper.DISPOSED);
+            if (current != null && current != DisposableHelper.DISPOSED
+                && !LifecycleHub.deferDispose(lifecycle, current)) {
+                current.dispose();
+            }
+            if (claimTerminal(COMPLETE)) {
+                monitor.onLifecycleEnd(token, event);
+                emitTerminal();
+            }
+        }
+
+        boolean claimTerminal(Throwable t) {
+            if (TERMINAL.compareAndSet(this, null, t)) {
+                return true;
+            }
+            if (t != COMPLETE && terminal != DISPOSED) {
+                RxJavaPlugins.onError(t);
+            }
+            return false;
+        }
+
+        void emitTerminal() {
+            if (STATE.getAndIncrement(this) == 0) {
+                terminate();
+            }
+        }
+
+        void terminate() {
+            Throwable t = terminal;
+            if (t == COMPLETE) {
+                downstream.onComplete();
+            }
+            else {
+                downstream.onError(t);
+            }
+        }
+
+        @Override
+        public void dispose() {
+            DisposableHelper.dispose(this);
+            DisposableHelper.dispose(other);
+            if (TERMINAL.compareAndSet(this, null, DISPOSED)) {
+                monitor.onDispose(token);
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return DisposableHelper.isDisposed(get());
+        }
+    }
+
+    static final class OtherObserver extends AtomicReference<Disposable> implements Observer<Object> {
+
+        final TakeUntilLifecycleObserver<?> parent;
+
+        OtherObserver(TakeUntilLifecycleObserver<?> parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            DisposableHelper.setOnce(this, d);
+        }
+
+        @Override
+        public void onNext(Object event) {
+            Disposable lifecycle = get();
+            DisposableHelper.dispose(this);
+            parent.lifecycleComplete(event, lifecycle);
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            parent.lifecycleError(e);
+        }
+
+        @Override
+        public void onComplete() {
+            parent.lifecycleComplete(null, null);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.ObservableSource;
+import io.reactivex.rxjava3.core.Observer;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.exceptions.Exceptions;
+import io.reactivex.rxjava3.internal.disposables.DisposableHelper;
+import io.reactivex.rxjava3.plugins.RxJavaPlugins;
+
+/**
+ * Emits the lifecycle event which corresponds to the first one seen, then completes.
+ * <p>
+ * Replaces the share/take/skip/combineLatest/filter chain of {@link RxLifecycle#bind(Observable,
+ * io.reactivex.rxjava3.functions.Function)} with a single observer.
+ */
+final class ObservableUntilCorrespondingEvent<E> extends Observable<E> {
+
+    final ObservableSource<E> lifecycle;
+    final CorrespondingEventsFunction<E> correspondingEvents;
+
+    ObservableUntilCorrespondingEvent(ObservableSource<E> lifecycle,
+                                      CorrespondingEventsFunction<E> correspondingEvents) {
+        this.lifecycle = lifecycle;
+        this.correspondingEvents = correspondingEvents;
+    }
+
+    @Override
+    protected void subscribeActual(Observer<? super E> observer) {
+        lifecycle.subscribe(new UntilCorrespondingEventObserver<>(observer, correspondingEvents));
+    }
+
+    static final class UntilCorrespondingEventObserver<E> implements Observer<E>, Disposable {
+
+        final Observer<? super E> downstream;
+        final CorrespondingEventsFunction<E> correspondingEvents;
+
+        Disposable upstream;
+
+        // Null until the first event has been seen
+        E endEvent;
+
+        boolean done;
+
+        UntilCorrespondingEventObserver(Observer<? super E> downstream,
+                                        CorrespondingEventsFunction<E> correspondingEvents) {
+            this.downstream = downstream;
+            this.correspondingEvents = correspondingEvents;
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            if (DisposableHelper.validate(upstream, d)) {
+                upstream = d;
+                downstream.onSubscribe(this);
+            }
+        }
+
+        @Override
+        public void onNext(E event) {
+            if (done) {
+                return;
+            }
+
+            if (endEvent == null) {
+                try {
+                    endEvent = correspondingEvents.apply(event);
+                }
+                catch (Throwable t) {
+                    Exceptions.throwIfFatal(t);
+                    upstream.dispose();
+                    onError(t);
+                    return;
+                }
+
+                if (endEvent == null) {
+                    // Outside of the lifecycle, so it is already over
+                    end(event);
+                }
+            }
+            else if (Functions.isEndEvent(endEvent, event)) {
+                end(event);
+            }
+        }
+
+        private void end(E event) {
+            done = true;
+            upstream.dispose();
+            downstream.onNext(event);
+            downstream.onComplete();
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            if (done) {
+                RxJavaPlugins.onError(e);
+                return;
+            }
+            done = true;
+            downstream.onError(e);
+        }
+
+        @Override
+        public void onComplete() {
+            if (!done) {
+                done = true;
+                downstream.onComplete();
+            }
+        }
+
+        @Override
+        public void dispose() {
+            upstream.dispose();
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return upstream.isDisposed();
+        }
+    }
+}
@@ -25,4 +25,12 @@ public class OutsideLifecycleException extends IllegalStateException {
     public OutsideLifecycleException(@Nullable String detailMessage) {
         super(detailMessage);
     }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        if (RxLifecycle.isStacklessExceptions()) {
+            return this;
+        }
+        return super.fillInStackTrace();
+    }
 }
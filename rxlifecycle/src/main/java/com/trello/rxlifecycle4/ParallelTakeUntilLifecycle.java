@@ -0,0 +1,290 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import io.reactivex.rxjava3.core.FlowableSubscriber;
+import io.reactivex.rxjava3.core.Observer;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.internal.disposables.DisposableHelper;
+import io.reactivex.rxjava3.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.rxjava3.parallel.ParallelFlowable;
+import io.reactivex.rxjava3.plugins.RxJavaPlugins;
+
+/**
+ * Binds every rail of a {@link ParallelFlowable} to a lifecycle, through a single subscription to the lifecycle
+ * which is shared by all of the rails.
+ * <p>
+ * The first lifecycle signal ends every rail still running, just as {@link FlowableTakeUntilLifecycle} does for
+ * a single one. The lifecycle is disposed once the lifecycle has ended the rails, or once every rail has ended on
+ * its own.
+ */
+final class ParallelTakeUntilLifecycle<T> extends ParallelFlowable<T> {
+
+    final ParallelFlowable<T> upstream;
+    final LifecycleTransformer<?> transformer;
+
+    ParallelTakeUntilLifecycle(ParallelFlowable<T> upstream, LifecycleTransformer<?> transformer) {
+        this.upstream = upstream;
+        this.transformer = transformer;
+    }
+
+    @Override
+    public int parallelism() {
+        return upstream.parallelism();
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T>[] subscribers) {
+        if (!validate(subscribers)) {
+            return;
+        }
+
+        int n = subscribers.length;
+        RxLifecycleMonitor monitor = RxLifecycle.monitor;
+        LifecycleObserver parent = new LifecycleObserver(n, monitor, monitor.onSubscribe(transformer));
+        RailSubscriber<T>[] rails = RailSubscriber.array(n);
+        for (int i = 0; i < n; i++) {
+            rails[i] = new RailSubscriber<>(subscribers[i], parent);
+        }
+        parent.rails = rails;
+
+        for (int i = 0; i < n; i++) {
+            subscribers[i].onSubscribe(rails[i]);
+        }
+        transformer.observable.subscribe(parent);
+        upstream.subscribe(rails);
+    }
+
+    static final class LifecycleObserver extends AtomicReference<Disposable> implements Observer<Object> {
+
+        static final AtomicIntegerFieldUpdater<LifecycleObserver> REMAINING =
+            AtomicIntegerFieldUpdater.newUpdater(LifecycleObserver.class, "remaining");
+
+        static final AtomicIntegerFieldUpdater<LifecycleObserver> ENDED =
+            AtomicIntegerFieldUpdater.newUpdater(LifecycleObserver.class, "ended");
+
+        final RxLifecycleMonitor monitor;
+        final Object token;
+
+        // Set before anything is subscribed
+        RailSubscriber<?>[] rails;
+
+        // Rails which have not yet ended on their own
+        volatile int remaining;
+
+        // Whether any rail was cancelled rather than ending on its own
+        volatile boolean cancelled;
+
+        // Non-zero once the binding as a whole has ended, so that the monitor sees exactly one ending
+        volatile int ended;
+
+        LifecycleObserver(int rails, RxLifecycleMonitor monitor, Object token) {
+            this.remaining = rails;
+            this.monitor = monitor;
+            this.token = token;
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            DisposableHelper.setOnce(this, d);
+        }
+
+        @Override
+        public void onNext(Object event) {
+            Disposable lifecycle = get();
+            DisposableHelper.dispose(this);
+            if (claimEnd()) {
+                monitor.onLifecycleEnd(token, event);
+                for (RailSubscriber<?> rail : rails) {
+                    rail.lifecycleComplete(lifecycle);
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            if (claimEnd()) {
+                monitor.onLifecycleEnd(token, null);
+                for (RailSubscriber<?> rail : rails) {
+                    rail.lifecycleError(e);
+                }
+            }
+            else {
+                RxJavaPlugins.onError(e);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (claimEnd()) {
+                monitor.onLifecycleEnd(token, null);
+                for (RailSubscriber<?> rail : rails) {
+                    rail.lifecycleComplete(null);
+                }
+            }
+        }
+
+        void railEnded(boolean cancelled) {
+            if (cancelled) {
+                this.cancelled = true;
+            }
+            if (REMAINING.decrementAndGet(this) == 0) {
+                DisposableHelper.dispose(this);
+                if (claimEnd()) {
+                    if (this.cancelled) {
+                        monitor.onDispose(token);
+                    }
+                    else {
+                        monitor.onUpstreamEnd(token);
+                    }
+                }
+            }
+        }
+
+        boolean claimEnd() {
+            return ended == 0 && ENDED.compareAndSet(this, 0, 1);
+        }
+    }
+
+    static final class RailSubscriber<T> extends AtomicReference<Subscription>
+        implements FlowableSubscriber<T>, Subscription {
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicIntegerFieldUpdater<RailSubscriber> STATE =
+            AtomicIntegerFieldUpdater.newUpdater(RailSubscriber.class, "state");
+
+        @SuppressWarnings("rawtypes")
+        static final AtomicReferenceFieldUpdater<RailSubscriber, Throwable> TERMINAL =
+            AtomicReferenceFieldUpdater.newUpdater(RailSubscriber.class, Throwable.class, "terminal");
+
+        // Marks normal completion in the terminal slot (which otherwise holds the error)
+        static final Throwable COMPLETE = new Throwable("Completed");
+
+        // Marks cancellation in the terminal slot
+        static final Throwable CANCELLED = new Throwable("Cancelled");
+
+        final Subscriber<? super T> downstream;
+        final LifecycleObserver parent;
+
+        // Requests made before the upstream subscribed
+        final AtomicLong requested = new AtomicLong();
+
+        // Non-zero while an item is being emitted or once a terminal event has been claimed
+        volatile int state;
+
+        // The first terminal event to arrive, from either the upstream or the lifecycle
+        volatile Throwable terminal;
+
+        RailSubscriber(Subscriber<? super T> downstream, LifecycleObserver parent) {
+            this.downstream = downstream;
+            this.parent = parent;
+        }
+
+        @SuppressWarnings("unchecked")
+        static <T> RailSubscriber<T>[] array(int length) {
+            return (RailSubscriber<T>[]) new RailSubscriber<?>[length];
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            SubscriptionHelper.deferredSetOnce(this, requested, s);
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (state == 0 && STATE.compareAndSet(this, 0, 1)) {
+                downstream.onNext(t);
+                if (STATE.decrementAndGet(this) != 0) {
+                    // A terminal event arrived while emitting; it is up to us to deliver it
+                    terminate();
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            if (TERMINAL.compareAndSet(this, null, e)) {
+                parent.railEnded(false);
+                emitTerminal();
+            }
+            else if (terminal != CANCELLED) {
+                RxJavaPlugins.onError(e);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (TERMINAL.compareAndSet(this, null, COMPLETE)) {
+                parent.railEnded(false);
+                emitTerminal();
+            }
+        }
+
+        void lifecycleError(Throwable e) {
+            SubscriptionHelper.cancel(this);
+            if (TERMINAL.compareAndSet(this, null, e)) {
+                emitTerminal();
+            }
+        }
+
+        void lifecycleComplete(Disposable lifecycle) {
+            Subscription current = getAndSet(SubscriptionHelper.CANCELLED);
+            if (current != null && current != SubscriptionHelper.CANCELLED
+                && !LifecycleHub.deferCancel(lifecycle, current)) {
+                current.cancel();
+            }
+            if (TERMINAL.compareAndSet(this, null, COMPLETE)) {
+                emitTerminal();
+            }
+        }
+
+        void emitTerminal() {
+            if (STATE.getAndIncrement(this) == 0) {
+                terminate();
+            }
+        }
+
+        void terminate() {
+            Throwable t = terminal;
+            if (t == COMPLETE) {
+                downstream.onComplete();
+            }
+            else {
+                downstream.onError(t);
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            SubscriptionHelper.deferredRequest(this, requested, n);
+        }
+
+        @Override
+        public void cancel() {
+            SubscriptionHelper.cancel(this);
+            if (TERMINAL.compareAndSet(this, null, CANCELLED)) {
+                parent.railEnded(true);
+            }
+        }
+    }
+}
@@ -14,22 +14,82 @@
 
 package com.trello.rxlifecycle4;
 
+import java.util.EnumSet;
+
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.Scheduler;
 import io.reactivex.rxjava3.functions.BiFunction;
 import io.reactivex.rxjava3.functions.Function;
-import io.reactivex.rxjava3.functions.Predicate;
 
 import static com.trello.rxlifecycle4.internal.Preconditions.checkNotNull;
 
 public class RxLifecycle {
 
+    private static volatile boolean stacklessExceptions;
+
+    static volatile RxLifecycleMonitor monitor = RxLifecycleMonitor.NONE;
+
+    static volatile Scheduler disposeScheduler;
+
     private RxLifecycle() {
         throw new AssertionError("No instances");
     }
 
+    /**
+     * Sets whether the exceptions RxLifecycle uses for control flow skip capturing their stack traces.
+     * <p>
+     * Binding outside of a lifecycle throws an {@link OutsideLifecycleException}, and cancelling a
+     * {@code Single} or {@code Completable} signals a {@link java.util.concurrent.CancellationException}.
+     * These are expected, and filling in their stack traces is the most expensive part of creating them.
+     * Stacks are captured by default; release builds may want to turn them off, e.g.
+     * {@code RxLifecycle.setStacklessExceptions(!BuildConfig.DEBUG)}.
+     *
+     * @param stackless true to skip capturing stack traces
+     */
+    public static void setStacklessExceptions(boolean stackless) {
+        stacklessExceptions = stackless;
+    }
+
+    /**
+     * @return true if the exceptions RxLifecycle uses for control flow skip capturing their stack traces
+     * @see #setStacklessExceptions(boolean)
+     */
+    public static boolean isStacklessExceptions() {
+        return stacklessExceptions;
+    }
+
+    /**
+     * Installs a monitor which is told about every binding made from now on.
+     *
+     * @param monitor the monitor, or null to stop monitoring
+     */
+    public static void setMonitor(@Nullable RxLifecycleMonitor monitor) {
+        RxLifecycle.monitor = monitor != null ? monitor : RxLifecycleMonitor.NONE;
+    }
+
+    /**
+     * Sets where bindings ended by a lifecycle event dispose their sources.
+     * <p>
+     * By default each binding disposes its source as soon as the event reaches it, so an event which ends
+     * hundreds of bindings (e.g. {@code DESTROY}) does all of that work inline, interleaved with completing
+     * them. With a scheduler, the bindings that an event ends through a {@link LifecycleHub} still complete
+     * immediately, but their sources are collected and disposed together in a single task on the scheduler.
+     * Pass {@code Schedulers.trampoline()} to keep disposing on the current thread, just after the whole batch
+     * has completed, or a background scheduler to move the disposal off the main thread.
+     * <p>
+     * Sources must be safe to dispose from the given scheduler. Only bindings made through a hub are batched;
+     * all others dispose inline.
+     *
+     * @param scheduler the scheduler to dispose on, or null to dispose each source inline
+     */
+    public static void setDisposeScheduler(@Nullable Scheduler scheduler) {
+        disposeScheduler = scheduler;
+    }
+
     /**
      * Binds the given source to a lifecycle.
      * <p>
@@ -48,13 +108,106 @@ public class RxLifecycle {
         return bind(takeUntilEvent(lifecycle, event));
     }
 
+    /**
+     * Binds the given source to a lifecycle, until any of a set of events occurs.
+     * <p>
+     * Equivalent to merging a {@link #bindUntilEvent(Observable, Object)} for each event, but subscribes to the
+     * lifecycle only once per binding. Events are tested against a bitmask of their ordinals.
+     *
+     * @param lifecycle the lifecycle sequence
+     * @param events the events which should conclude notifications from the source; the set is copied
+     * @return a reusable {@link LifecycleTransformer} that unsubscribes the source at any of the events
+     * @throws IllegalArgumentException if the set is empty
+     */
+    @Nonnull
+    @CheckReturnValue
+    public static <T, E extends Enum<E>> LifecycleTransformer<T> bindUntilAnyEvent(@Nonnull Observable<E> lifecycle,
+                                                                                   @Nonnull EnumSet<E> events) {
+        checkNotNull(lifecycle, "lifecycle == null");
+        checkNotNull(events, "events == null");
+        if (events.isEmpty()) {
+            throw new IllegalArgumentException("events is empty");
+        }
+        return bind(lifecycle.filter(EventMask.of(events)));
+    }
+
+    /**
+     * Binds the given source to a window of a lifecycle: the source is subscribed while the lifecycle is at
+     * {@code start} or any event declared after it and before {@code end}, disposed at {@code end}, and subscribed
+     * again the next time the lifecycle reaches {@code start}.
+     * <p>
+     * Unlike the other bindings this one does not end at {@code end}, so a chain can be assembled and subscribed
+     * once (e.g. in {@code onCreate}) instead of in every {@code onStart}. The window follows the declaration order
+     * of the enum, so a lifecycle which already is inside of it subscribes the source right away.
+     * <p>
+     * The binding only ends once the lifecycle sequence completes, as nothing tells it which event ends the
+     * lifecycle. Lifecycles which never complete should bind through {@link LifecycleHub#bindWhileIn(Enum, Enum)}
+     * (or a {@link LifecycleProvider} built on one) instead, which ends the binding at the end of the lifecycle.
+     *
+     * @param lifecycle the lifecycle sequence
+     * @param start the event at which the source is subscribed
+     * @param end the event at which the source is disposed; must be declared after {@code start}
+     * @return a reusable {@link LifecycleWindowTransformer} that subscribes the source within the window
+     * @throws IllegalArgumentException if {@code end} is not declared after {@code start}
+     */
+    @Nonnull
+    @CheckReturnValue
+    public static <T, E extends Enum<E>> LifecycleWindowTransformer<T> bindWhileIn(@Nonnull Observable<E> lifecycle,
+                                                                                  @Nonnull E start,
+                                                                                  @Nonnull E end) {
+        checkNotNull(lifecycle, "lifecycle == null");
+        checkNotNull(start, "start == null");
+        checkNotNull(end, "end == null");
+        EnumSet<E> window = LifecycleWindowTransformer.window(start, end);
+        return new LifecycleWindowTransformer<>(lifecycle
+            .map(new LifecycleWindowTransformer.InWindow<>(EventMask.of(window)))
+            .distinctUntilChanged());
+    }
+
+    /**
+     * Holds back the given source's items while a lifecycle is paused, instead of ending the source or delivering
+     * them to e.g. a UI which is not visible. The lifecycle counts as paused from {@code pause} until
+     * {@code resume}, following the declaration order of the enum and wrapping around at its end, so that
+     * {@code PAUSE} to {@code RESUME} covers everything but {@code RESUME} itself.
+     * <p>
+     * Items arriving while paused go into a ring buffer of the given capacity, which keeps the latest of them by
+     * overwriting the oldest one when it is full; all of them are delivered at {@code resume}. The lifecycle
+     * sequence is typically {@link LifecycleProvider#lifecycle()}.
+     * <p>
+     * Held back items are only dropped, and a completion or error the source sent while paused only delivered
+     * without a resume, once the lifecycle sequence completes. Lifecycles which never complete, and which may end
+     * without resuming (e.g. {@code PAUSE}, {@code STOP}, {@code DESTROY}), should buffer through
+     * {@link LifecycleHub#bufferWhilePaused(Enum, Enum, int)} instead, which ends the binding at the end of the
+     * lifecycle.
+     *
+     * @param lifecycle the lifecycle sequence
+     * @param pause the event from which items are held back
+     * @param resume the event at which held back items are delivered
+     * @param capacity how many items to hold back at most
+     * @return a reusable {@link LifecyclePauseTransformer} that holds back items while paused
+     * @throws IllegalArgumentException if {@code pause} and {@code resume} are the same event or the capacity is
+     * not positive
+     */
+    @Nonnull
+    @CheckReturnValue
+    public static <T, E extends Enum<E>> LifecyclePauseTransformer<T> bufferWhilePaused(
+        @Nonnull Observable<E> lifecycle,
+        @Nonnull E pause,
+        @Nonnull E resume,
+        int capacity) {
+        checkNotNull(lifecycle, "lifecycle == null");
+        checkNotNull(pause, "pause == null");
+        checkNotNull(resume, "resume == null");
+        EnumSet<E> paused = LifecyclePauseTransformer.paused(pause, resume);
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity <= 0: " + capacity);
+        }
+        return new LifecyclePauseTransformer<>(
+            lifecycle.map(new LifecycleWindowTransformer.InWindow<>(EventMask.of(paused))), capacity);
+    }
+
     private static <R> Observable<R> takeUntilEvent(final Observable<R> lifecycle, final R event) {
-        return lifecycle.filter(new Predicate<R>() {
-            @Override
-            public boolean test(R lifecycleEvent) throws Exception {
-                return lifecycleEvent.equals(event);
-            }
-        });
+        return lifecycle.filter(Functions.isEvent(event));
     }
 
     /**
@@ -96,6 +249,76 @@ public class RxLifecycle {
         return bind(takeUntilCorrespondingEvent(lifecycle.share(), correspondingEvents));
     }
 
+    /**
+     * Binds the given source to a lifecycle.
+     * <p>
+     * This behaves the same as {@link #bind(Observable, Function)}, except that the correspondingEvents
+     * function reports that the lifecycle is over by returning null rather than by throwing an
+     * {@link OutsideLifecycleException}. Binding only costs a single operator.
+     * <p>
+     * This has its own name rather than overloading {@link #bind(Observable, Function)}, as both functions
+     * have the same shape and a lambda would match either of them.
+     *
+     * @param lifecycle the lifecycle sequence
+     * @param correspondingEvents a function which tells the source when to unsubscribe
+     * @return a reusable {@link LifecycleTransformer} that unsubscribes the source during the lifecycle
+     */
+    @Nonnull
+    @CheckReturnValue
+    public static <T, R> LifecycleTransformer<T> bindCorresponding(
+        @Nonnull Observable<R> lifecycle,
+        @Nonnull CorrespondingEventsFunction<R> correspondingEvents) {
+        checkNotNull(lifecycle, "lifecycle == null");
+        checkNotNull(correspondingEvents, "correspondingEvents == null");
+        return bind(new ObservableUntilCorrespondingEvent<>(lifecycle, correspondingEvents));
+    }
+
+    /**
+     * Binds the given source to an enum lifecycle.
+     * <p>
+     * This behaves the same as {@link #bind(Observable, Function)}, but is specialized for lifecycles
+     * whose events are enum constants (such as those on Android). The corresponding event of each
+     * constant is resolved once and then shared between subscriptions, so that subscribing to the
+     * source only costs a single operator instead of a chain of them.
+     *
+     * @param lifecycle the lifecycle sequence
+     * @param eventType the class of the lifecycle's events
+     * @param correspondingEvents a function which tells the source when to unsubscribe
+     * @return a reusable {@link LifecycleTransformer} that unsubscribes the source during the lifecycle
+     */
+    @Nonnull
+    @CheckReturnValue
+    public static <T, E extends Enum<E>> LifecycleTransformer<T> bindEnum(@Nonnull Observable<E> lifecycle,
+                                                                          @Nonnull Class<E> eventType,
+                                                                          @Nonnull Function<E, E> correspondingEvents) {
+        checkNotNull(correspondingEvents, "correspondingEvents == null");
+        return bindEnumCorresponding(lifecycle, eventType, Functions.correspondingEvents(correspondingEvents));
+    }
+
+    /**
+     * Binds the given source to an enum lifecycle.
+     * <p>
+     * This behaves the same as {@link #bindCorresponding(Observable, CorrespondingEventsFunction)}, but resolves the
+     * corresponding event of each constant only once.
+     *
+     * @param lifecycle the lifecycle sequence
+     * @param eventType the class of the lifecycle's events
+     * @param correspondingEvents a function which tells the source when to unsubscribe
+     * @return a reusable {@link LifecycleTransformer} that unsubscribes the source during the lifecycle
+     */
+    @Nonnull
+    @CheckReturnValue
+    public static <T, E extends Enum<E>> LifecycleTransformer<T> bindEnumCorresponding(
+        @Nonnull Observable<E> lifecycle,
+        @Nonnull Class<E> eventType,
+        @Nonnull CorrespondingEventsFunction<E> correspondingEvents) {
+        checkNotNull(lifecycle, "lifecycle == null");
+        checkNotNull(eventType, "eventType == null");
+        checkNotNull(correspondingEvents, "correspondingEvents == null");
+        return bind(new ObservableUntilCorrespondingEvent<>(lifecycle,
+            CorrespondingEventTable.of(eventType, correspondingEvents)));
+    }
+
     private static <R> Observable<Boolean> takeUntilCorrespondingEvent(final Observable<R> lifecycle,
                                                                        final Function<R, R> correspondingEvents) {
         return Observable.combineLatest(
@@ -104,7 +327,7 @@ public class RxLifecycle {
             new BiFunction<R, R, Boolean>() {
                 @Override
                 public Boolean apply(R bindUntilEvent, R lifecycleEvent) throws Exception {
-                    return lifecycleEvent.equals(bindUntilEvent);
+                    return Functions.isEndEvent(bindUntilEvent, lifecycleEvent);
                 }
             })
             .onErrorReturn(Functions.RESUME_FUNCTION)
@@ -0,0 +1,86 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Observes the bindings made through {@link LifecycleTransformer}s, e.g. to count them or to time how long
+ * they live. Install one with {@link RxLifecycle#setMonitor(RxLifecycleMonitor)}.
+ * <p>
+ * Every binding is reported once when it is subscribed, then once more when it ends, through exactly one of
+ * {@link #onLifecycleEnd(Object, Object)}, {@link #onUpstreamEnd(Object)} or {@link #onDispose(Object)}.
+ * Callbacks run synchronously on the thread that caused them, so they should be quick and must not throw.
+ * <p>
+ * All methods do nothing by default; override the ones you need. The monitor in place when a binding is
+ * subscribed is the one that sees it end.
+ */
+public abstract class RxLifecycleMonitor {
+
+    static final RxLifecycleMonitor NONE = new RxLifecycleMonitor() {
+    };
+
+    /**
+     * Called when a bound source is subscribed.
+     *
+     * @param transformer the transformer the source was bound with
+     * @return a token which is handed back when the binding ends, e.g. to carry its start time
+     */
+    @Nullable
+    public Object onSubscribe(@Nonnull LifecycleTransformer<?> transformer) {
+        return null;
+    }
+
+    /**
+     * Called when a source bound to a window of a lifecycle is subscribed.
+     * <p>
+     * Such a binding lives across windows, so it only ends once the lifecycle does (reported without an event),
+     * when its source fails, or when it is disposed.
+     *
+     * @param transformer the transformer the source was bound with
+     * @return a token which is handed back when the binding ends
+     */
+    @Nullable
+    public Object onSubscribe(@Nonnull LifecycleWindowTransformer<?> transformer) {
+        return null;
+    }
+
+    /**
+     * Called when the lifecycle ends a binding.
+     *
+     * @param token the token returned by {@link #onSubscribe(LifecycleTransformer)}
+     * @param event the lifecycle event which ended the binding, or null if the lifecycle itself terminated or
+     * the binding was to a window
+     */
+    public void onLifecycleEnd(@Nullable Object token, @Nullable Object event) {
+    }
+
+    /**
+     * Called when a binding ends because its source completed or failed.
+     *
+     * @param token the token returned by {@link #onSubscribe(LifecycleTransformer)}
+     */
+    public void onUpstreamEnd(@Nullable Object token) {
+    }
+
+    /**
+     * Called when a binding is disposed before it ended.
+     *
+     * @param token the token returned by {@link #onSubscribe(LifecycleTransformer)}
+     */
+    public void onDispose(@Nullable Object token) {
+    }
+}
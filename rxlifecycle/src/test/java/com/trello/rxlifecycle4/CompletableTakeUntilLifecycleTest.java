@@ -0,0 +1,114 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CancellationException;
+
+import io.reactivex.rxjava3.observers.TestObserver;
+import io.reactivex.rxjava3.subjects.BehaviorSubject;
+import io.reactivex.rxjava3.subjects.CompletableSubject;
+import io.reactivex.rxjava3.subjects.PublishSubject;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CompletableTakeUntilLifecycleTest {
+
+    CompletableSubject completable;
+    PublishSubject<String> lifecycle;
+
+    @Before
+    public void setup() {
+        completable = CompletableSubject.create();
+        lifecycle = PublishSubject.create();
+    }
+
+    @Test
+    public void lifecycleEventCancelsAndDisposesBoth() {
+        TestObserver<Void> testObserver = completable.compose(RxLifecycle.bind(lifecycle)).test();
+        assertTrue(completable.hasObservers());
+        assertTrue(lifecycle.hasObservers());
+
+        lifecycle.onNext("stop");
+
+        testObserver.assertError(CancellationException.class);
+        assertFalse(completable.hasObservers());
+        assertFalse(lifecycle.hasObservers());
+    }
+
+    @Test
+    public void upstreamCompleteDisposesLifecycle() {
+        TestObserver<Void> testObserver = completable.compose(RxLifecycle.bind(lifecycle)).test();
+
+        completable.onComplete();
+
+        testObserver.assertResult();
+        assertFalse(lifecycle.hasObservers());
+    }
+
+    @Test
+    public void upstreamErrorDisposesLifecycle() {
+        TestObserver<Void> testObserver = completable.compose(RxLifecycle.bind(lifecycle)).test();
+
+        completable.onError(new IllegalStateException());
+
+        testObserver.assertError(IllegalStateException.class);
+        assertFalse(lifecycle.hasObservers());
+    }
+
+    @Test
+    public void lifecycleErrorDisposesUpstream() {
+        TestObserver<Void> testObserver = completable.compose(RxLifecycle.bind(lifecycle)).test();
+
+        lifecycle.onError(new IllegalStateException());
+
+        testObserver.assertError(IllegalStateException.class);
+        assertFalse(completable.hasObservers());
+    }
+
+    @Test
+    public void lifecycleCompleteCompletes() {
+        TestObserver<Void> testObserver = completable.compose(RxLifecycle.bind(lifecycle)).test();
+
+        lifecycle.onComplete();
+
+        testObserver.assertResult();
+        assertFalse(completable.hasObservers());
+    }
+
+    @Test
+    public void disposeDisposesBoth() {
+        TestObserver<Void> testObserver = completable.compose(RxLifecycle.bind(lifecycle)).test();
+
+        testObserver.dispose();
+
+        assertFalse(completable.hasObservers());
+        assertFalse(lifecycle.hasObservers());
+    }
+
+    @Test
+    public void lifecycleAlreadyEnded() {
+        BehaviorSubject<String> lifecycle = BehaviorSubject.createDefault("stop");
+
+        TestObserver<Void> testObserver = completable.compose(RxLifecycle.bind(lifecycle)).test();
+
+        testObserver.assertError(CancellationException.class);
+        assertFalse(completable.hasObservers());
+        assertFalse(lifecycle.hasObservers());
+    }
+}
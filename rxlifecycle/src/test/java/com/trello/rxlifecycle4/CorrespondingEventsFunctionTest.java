@@ -0,0 +1,94 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.reactivex.rxjava3.observers.TestObserver;
+import io.reactivex.rxjava3.subjects.BehaviorSubject;
+import io.reactivex.rxjava3.subjects.PublishSubject;
+
+public class CorrespondingEventsFunctionTest {
+
+    PublishSubject<String> stream;
+    BehaviorSubject<String> lifecycle;
+
+    @Before
+    public void setup() {
+        stream = PublishSubject.create();
+        lifecycle = BehaviorSubject.create();
+    }
+
+    @Test
+    public void openAndCloseEvent() {
+        TestObserver<String> testObserver = stream
+            .compose(RxLifecycle.<String, String>bindCorresponding(lifecycle, CORRESPONDING_EVENTS))
+            .test();
+
+        lifecycle.onNext("create");
+        stream.onNext("1");
+        lifecycle.onNext("start");
+        stream.onNext("2");
+        testObserver.assertValues("1", "2");
+        testObserver.assertNotComplete();
+
+        lifecycle.onNext("destroy");
+        stream.onNext("3");
+        testObserver.assertResult("1", "2");
+    }
+
+    @Test
+    public void outsideLifecycle() {
+        lifecycle.onNext("destroy");
+        TestObserver<String> testObserver = stream
+            .compose(RxLifecycle.<String, String>bindCorresponding(lifecycle, CORRESPONDING_EVENTS))
+            .test();
+
+        stream.onNext("1");
+        testObserver.assertResult();
+    }
+
+    @Test
+    public void unsupportedEvent() {
+        lifecycle.onNext("ick");
+        TestObserver<String> testObserver = stream
+            .compose(RxLifecycle.<String, String>bindCorresponding(lifecycle, CORRESPONDING_EVENTS))
+            .test();
+
+        testObserver.assertError(IllegalArgumentException.class);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testBindThrowsOnNullFunction() {
+        //noinspection ResourceType
+        RxLifecycle.bindCorresponding(lifecycle, null);
+    }
+
+    private static final CorrespondingEventsFunction<String> CORRESPONDING_EVENTS =
+        new CorrespondingEventsFunction<String>() {
+            @Override
+            public String apply(String event) throws Exception {
+                if (event.equals("create")) {
+                    return "destroy";
+                }
+                if (event.equals("destroy")) {
+                    return null;
+                }
+
+                throw new IllegalArgumentException("Cannot handle: " + event);
+            }
+        };
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import org.junit.Test;
+
+import io.reactivex.rxjava3.observers.TestObserver;
+import io.reactivex.rxjava3.subjects.BehaviorSubject;
+import io.reactivex.rxjava3.subjects.PublishSubject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CorrespondingEventsTest {
+
+    private static final CorrespondingEvents<Event> CORRESPONDING_EVENTS = CorrespondingEvents.builder(Event.class)
+        .map(Event.CREATE, Event.DESTROY)
+        .map(Event.START, Event.STOP)
+        .map(Event.STOP, Event.DESTROY)
+        .outside(Event.DESTROY)
+        .unsupported(Event.UNSUPPORTED)
+        .build();
+
+    @Test
+    public void resolvesEvents() {
+        assertEquals(Event.DESTROY, CORRESPONDING_EVENTS.apply(Event.CREATE));
+        assertEquals(Event.STOP, CORRESPONDING_EVENTS.apply(Event.START));
+        assertEquals(Event.DESTROY, CORRESPONDING_EVENTS.apply(Event.STOP));
+        assertNull(CORRESPONDING_EVENTS.apply(Event.DESTROY));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void unsupportedEvent() {
+        CORRESPONDING_EVENTS.apply(Event.UNSUPPORTED);
+    }
+
+    @Test
+    public void missingEvents() {
+        CorrespondingEvents.Builder<Event> builder = CorrespondingEvents.builder(Event.class)
+            .map(Event.CREATE, Event.DESTROY)
+            .outside(Event.DESTROY);
+        try {
+            builder.build();
+            fail();
+        }
+        catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("[START, STOP, UNSUPPORTED]"));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void duplicateEvent() {
+        CorrespondingEvents.builder(Event.class)
+            .map(Event.CREATE, Event.DESTROY)
+            .outside(Event.CREATE);
+    }
+
+    @Test
+    public void bind() {
+        BehaviorSubject<Event> lifecycle = BehaviorSubject.createDefault(Event.START);
+        PublishSubject<String> stream = PublishSubject.create();
+
+        TestObserver<String> testObserver = stream
+            .compose(RxLifecycle.<String, Event>bindCorresponding(lifecycle, CORRESPONDING_EVENTS))
+            .test();
+        stream.onNext("1");
+        lifecycle.onNext(Event.STOP);
+        stream.onNext("2");
+
+        testObserver.assertResult("1");
+    }
+
+    // Null checks
+
+    @Test(expected = NullPointerException.class)
+    public void testBuilderThrowsOnNullEventType() {
+        //noinspection ResourceType
+        CorrespondingEvents.builder(null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testMapThrowsOnNullEndEvent() {
+        //noinspection ResourceType
+        CorrespondingEvents.builder(Event.class).map(Event.CREATE, null);
+    }
+
+    enum Event {
+        CREATE,
+        START,
+        STOP,
+        DESTROY,
+        UNSUPPORTED
+    }
+}
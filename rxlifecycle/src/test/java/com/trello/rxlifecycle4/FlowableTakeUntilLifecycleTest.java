@@ -0,0 +1,150 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.functions.Consumer;
+import io.reactivex.rxjava3.processors.PublishProcessor;
+import io.reactivex.rxjava3.subjects.BehaviorSubject;
+import io.reactivex.rxjava3.subjects.PublishSubject;
+import io.reactivex.rxjava3.subscribers.TestSubscriber;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FlowableTakeUntilLifecycleTest {
+
+    PublishProcessor<String> stream;
+    PublishSubject<String> lifecycle;
+
+    @Before
+    public void setup() {
+        stream = PublishProcessor.create();
+        lifecycle = PublishSubject.create();
+    }
+
+    @Test
+    public void lifecycleEventCancelsBoth() {
+        TestSubscriber<String> testSubscriber = stream.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+        assertTrue(stream.hasSubscribers());
+        assertTrue(lifecycle.hasObservers());
+
+        stream.onNext("1");
+        lifecycle.onNext("stop");
+
+        testSubscriber.assertResult("1");
+        assertFalse(stream.hasSubscribers());
+        assertFalse(lifecycle.hasObservers());
+    }
+
+    @Test
+    public void upstreamCompleteDisposesLifecycle() {
+        TestSubscriber<String> testSubscriber = stream.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+
+        stream.onNext("1");
+        stream.onComplete();
+
+        testSubscriber.assertResult("1");
+        assertFalse(lifecycle.hasObservers());
+    }
+
+    @Test
+    public void upstreamErrorDisposesLifecycle() {
+        TestSubscriber<String> testSubscriber = stream.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+
+        stream.onError(new IllegalStateException());
+
+        testSubscriber.assertError(IllegalStateException.class);
+        assertFalse(lifecycle.hasObservers());
+    }
+
+    @Test
+    public void lifecycleErrorCancelsUpstream() {
+        TestSubscriber<String> testSubscriber = stream.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+
+        lifecycle.onError(new IllegalStateException());
+
+        testSubscriber.assertError(IllegalStateException.class);
+        assertFalse(stream.hasSubscribers());
+    }
+
+    @Test
+    public void lifecycleCompleteCompletes() {
+        TestSubscriber<String> testSubscriber = stream.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+
+        lifecycle.onComplete();
+
+        testSubscriber.assertResult();
+        assertFalse(stream.hasSubscribers());
+    }
+
+    @Test
+    public void cancelCancelsBoth() {
+        TestSubscriber<String> testSubscriber = stream.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+
+        testSubscriber.cancel();
+
+        assertFalse(stream.hasSubscribers());
+        assertFalse(lifecycle.hasObservers());
+    }
+
+    @Test
+    public void lifecycleAlreadyEnded() {
+        BehaviorSubject<String> lifecycle = BehaviorSubject.createDefault("stop");
+
+        TestSubscriber<String> testSubscriber = stream.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+
+        testSubscriber.assertResult();
+        assertFalse(stream.hasSubscribers());
+        assertFalse(lifecycle.hasObservers());
+    }
+
+    @Test
+    public void lifecycleEventWhileEmitting() {
+        TestSubscriber<String> testSubscriber = stream
+            .compose(RxLifecycle.<String, String>bind(lifecycle))
+            .doOnNext(new Consumer<String>() {
+                @Override
+                public void accept(String s) throws Exception {
+                    lifecycle.onNext("stop");
+                }
+            })
+            .test();
+
+        stream.onNext("1");
+        stream.onNext("2");
+
+        testSubscriber.assertResult("1");
+    }
+
+    @Test
+    public void requestsPassThrough() {
+        TestSubscriber<Integer> testSubscriber = Flowable.range(1, 10)
+            .compose(RxLifecycle.<Integer, String>bind(lifecycle))
+            .test(0);
+
+        testSubscriber.assertEmpty();
+
+        testSubscriber.request(2);
+        testSubscriber.assertValues(1, 2);
+        testSubscriber.assertNotComplete();
+
+        lifecycle.onNext("stop");
+        testSubscriber.assertResult(1, 2);
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.reactivex.rxjava3.functions.Consumer;
+import io.reactivex.rxjava3.observers.TestObserver;
+import io.reactivex.rxjava3.subjects.PublishSubject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class LifecycleEventSourceTest {
+
+    LifecycleEventSource<Event> source;
+
+    @Before
+    public void setup() {
+        source = LifecycleEventSource.create();
+    }
+
+    @Test
+    public void noEvents() {
+        TestObserver<Event> testObserver = source.asObservable().test();
+        testObserver.assertEmpty();
+    }
+
+    @Test
+    public void replaysLatestEvent() {
+        source.onNext(Event.CREATE);
+        source.onNext(Event.START);
+
+        TestObserver<Event> testObserver = source.asObservable().test();
+        source.onNext(Event.STOP);
+
+        testObserver.assertValues(Event.START, Event.STOP);
+        testObserver.assertNotComplete();
+    }
+
+    @Test
+    public void dispatchesToAllObservers() {
+        TestObserver<Event> first = source.asObservable().test();
+        TestObserver<Event> second = source.asObservable().test();
+        TestObserver<Event> third = source.asObservable().test();
+
+        source.onNext(Event.CREATE);
+        second.dispose();
+        source.onNext(Event.START);
+
+        first.assertValues(Event.CREATE, Event.START);
+        second.assertValues(Event.CREATE);
+        third.assertValues(Event.CREATE, Event.START);
+    }
+
+    @Test
+    public void disposeWhileDispatching() {
+        final TestObserver<Event> second = new TestObserver<>();
+        TestObserver<Event> first = source.asObservable()
+            .doOnNext(new Consumer<Event>() {
+                @Override
+                public void accept(Event event) throws Exception {
+                    second.dispose();
+                }
+            })
+            .test();
+        source.asObservable().subscribe(second);
+        TestObserver<Event> third = source.asObservable().test();
+
+        source.onNext(Event.CREATE);
+
+        first.assertValues(Event.CREATE);
+        second.assertEmpty();
+        third.assertValues(Event.CREATE);
+    }
+
+    @Test
+    public void disposeRemovesObserver() {
+        TestObserver<Event> first = source.asObservable().test();
+        TestObserver<Event> second = source.asObservable().test();
+        assertEquals(2, source.observers.get().length);
+
+        first.dispose();
+        second.dispose();
+        assertEquals(0, source.observers.get().length);
+    }
+
+    @Test
+    public void subscribeWhileDispatching() {
+        final TestObserver<Event> late = new TestObserver<>();
+        source.asObservable()
+            .take(1)
+            .doOnNext(new Consumer<Event>() {
+                @Override
+                public void accept(Event event) throws Exception {
+                    source.asObservable().subscribe(late);
+                }
+            })
+            .subscribe();
+
+        source.onNext(Event.CREATE);
+        source.onNext(Event.START);
+
+        // Sees CREATE once, as the latest event, rather than again from the ongoing dispatch
+        late.assertValues(Event.CREATE, Event.START);
+    }
+
+    @Test
+    public void eventWhileReplaying() {
+        source.onNext(Event.CREATE);
+
+        final TestObserver<Event> testObserver = new TestObserver<>();
+        source.asObservable()
+            .doOnNext(new Consumer<Event>() {
+                @Override
+                public void accept(Event event) throws Exception {
+                    if (event == Event.CREATE) {
+                        source.onNext(Event.START);
+                        source.onNext(Event.STOP);
+                    }
+                }
+            })
+            .subscribe(testObserver);
+
+        testObserver.assertValues(Event.CREATE, Event.START, Event.STOP);
+    }
+
+    @Test
+    public void asObservableIsCached() {
+        assertSame(source.asObservable(), source.asObservable());
+    }
+
+    @Test
+    public void bindsThroughHub() {
+        LifecycleHub<Event> hub = LifecycleHub.createCorresponding(source.asObservable(), Event.class,
+            new CorrespondingEventsFunction<Event>() {
+                @Override
+                public Event apply(Event event) throws Exception {
+                    return event == Event.CREATE ? Event.DESTROY : Event.STOP;
+                }
+            });
+        PublishSubject<String> stream = PublishSubject.create();
+
+        source.onNext(Event.START);
+        TestObserver<String> testObserver = stream.compose(hub.<String>bindToLifecycle()).test();
+        stream.onNext("1");
+        source.onNext(Event.STOP);
+        stream.onNext("2");
+
+        testObserver.assertResult("1");
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testOnNextThrowsOnNull() {
+        //noinspection ResourceType
+        source.onNext(null);
+    }
+
+    enum Event {
+        CREATE,
+        START,
+        STOP,
+        DESTROY
+    }
+}
@@ -0,0 +1,442 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.Observer;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.functions.Consumer;
+import io.reactivex.rxjava3.functions.Function;
+import io.reactivex.rxjava3.observers.TestObserver;
+import io.reactivex.rxjava3.plugins.RxJavaPlugins;
+import io.reactivex.rxjava3.processors.PublishProcessor;
+import io.reactivex.rxjava3.schedulers.TestScheduler;
+import io.reactivex.rxjava3.subjects.BehaviorSubject;
+import io.reactivex.rxjava3.subjects.PublishSubject;
+import io.reactivex.rxjava3.subscribers.TestSubscriber;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class LifecycleHubTest {
+
+    PublishSubject<String> stream;
+    BehaviorSubject<Event> lifecycle;
+    AtomicInteger subscriptions;
+    LifecycleHub<Event> hub;
+
+    @Before
+    public void setup() {
+        stream = PublishSubject.create();
+        lifecycle = BehaviorSubject.create();
+        subscriptions = new AtomicInteger();
+        hub = LifecycleHub.create(
+            lifecycle.doOnSubscribe(new Consumer<Disposable>() {
+                @Override
+                public void accept(Disposable disposable) throws Exception {
+                    subscriptions.incrementAndGet();
+                }
+            }),
+            Event.class,
+            CORRESPONDING_EVENTS);
+    }
+
+    @After
+    public void tearDown() {
+        RxLifecycle.setDisposeScheduler(null);
+    }
+
+    @Test
+    public void bindUntilEvent() {
+        TestObserver<String> testObserver = stream.compose(hub.<String>bindUntilEvent(Event.STOP)).test();
+
+        lifecycle.onNext(Event.CREATE);
+        lifecycle.onNext(Event.START);
+        stream.onNext("1");
+        testObserver.assertNotComplete();
+
+        lifecycle.onNext(Event.STOP);
+        stream.onNext("2");
+        testObserver.assertResult("1");
+    }
+
+    @Test
+    public void bindUntilLatestEvent() {
+        lifecycle.onNext(Event.STOP);
+
+        TestObserver<String> testObserver = stream.compose(hub.<String>bindUntilEvent(Event.STOP)).test();
+        testObserver.assertResult();
+    }
+
+    @Test
+    public void bindUntilAnyEvent() {
+        TestObserver<String> testObserver =
+            stream.compose(hub.<String>bindUntilAnyEvent(EnumSet.of(Event.STOP, Event.DESTROY))).test();
+
+        lifecycle.onNext(Event.CREATE);
+        lifecycle.onNext(Event.START);
+        stream.onNext("1");
+        testObserver.assertNotComplete();
+
+        lifecycle.onNext(Event.STOP);
+        stream.onNext("2");
+        testObserver.assertResult("1");
+        assertNull(hub.heads[Event.STOP.ordinal()]);
+        assertNull(hub.heads[Event.DESTROY.ordinal()]);
+    }
+
+    @Test
+    public void bindUntilAnyEventDispose() {
+        TestObserver<String> testObserver =
+            stream.compose(hub.<String>bindUntilAnyEvent(EnumSet.of(Event.STOP, Event.DESTROY))).test();
+
+        testObserver.dispose();
+        assertNull(hub.heads[Event.STOP.ordinal()]);
+        assertNull(hub.heads[Event.DESTROY.ordinal()]);
+    }
+
+    @Test
+    public void bindUntilAnyEventLifecycleCompletes() {
+        TestObserver<String> testObserver =
+            stream.compose(hub.<String>bindUntilAnyEvent(EnumSet.of(Event.STOP, Event.DESTROY))).test();
+
+        lifecycle.onComplete();
+        testObserver.assertResult();
+        assertFalse(stream.hasObservers());
+    }
+
+    @Test
+    public void bindUntilAnyLatestEvent() {
+        lifecycle.onNext(Event.STOP);
+
+        stream.compose(hub.<String>bindUntilAnyEvent(EnumSet.of(Event.STOP, Event.DESTROY))).test().assertResult();
+    }
+
+    @Test
+    public void bindUntilAnyEventKeepsOthers() {
+        TestObserver<String> stopObserver =
+            stream.compose(hub.<String>bindUntilAnyEvent(EnumSet.of(Event.STOP))).test();
+        TestObserver<String> destroyObserver =
+            stream.compose(hub.<String>bindUntilAnyEvent(EnumSet.of(Event.DESTROY))).test();
+
+        lifecycle.onNext(Event.STOP);
+        stopObserver.assertComplete();
+        destroyObserver.assertNotComplete();
+
+        lifecycle.onNext(Event.DESTROY);
+        destroyObserver.assertComplete();
+    }
+
+    @Test
+    public void transformersAreReused() {
+        assertSame(hub.<String>bindUntilEvent(Event.STOP), hub.<Integer>bindUntilEvent(Event.STOP));
+        assertNotSame(hub.<String>bindUntilEvent(Event.STOP), hub.<String>bindUntilEvent(Event.DESTROY));
+        assertSame(hub.<String>bindToLifecycle(), hub.<Integer>bindToLifecycle());
+    }
+
+    @Test
+    public void bindToLifecycle() {
+        lifecycle.onNext(Event.CREATE);
+        TestObserver<String> createObserver = stream.compose(hub.<String>bindToLifecycle()).test();
+
+        lifecycle.onNext(Event.START);
+        TestObserver<String> startObserver = stream.compose(hub.<String>bindToLifecycle()).test();
+        createObserver.assertNotComplete();
+
+        lifecycle.onNext(Event.STOP);
+        createObserver.assertNotComplete();
+        startObserver.assertComplete();
+
+        lifecycle.onNext(Event.DESTROY);
+        createObserver.assertComplete();
+    }
+
+    @Test
+    public void bindToLifecycleBeforeFirstEvent() {
+        TestObserver<String> testObserver = stream.compose(hub.<String>bindToLifecycle()).test();
+
+        // The first event only determines when to end
+        lifecycle.onNext(Event.START);
+        testObserver.assertNotComplete();
+
+        lifecycle.onNext(Event.STOP);
+        testObserver.assertComplete();
+    }
+
+    @Test
+    public void bindToLifecycleOutsideLifecycle() {
+        lifecycle.onNext(Event.DESTROY);
+
+        TestObserver<String> testObserver = stream.compose(hub.<String>bindToLifecycle()).test();
+        testObserver.assertResult();
+    }
+
+    @Test
+    public void bindToLifecycleFunctionError() {
+        LifecycleHub<Event> hub = LifecycleHub.create(lifecycle, Event.class, new Function<Event, Event>() {
+            @Override
+            public Event apply(Event event) throws Exception {
+                throw new IllegalArgumentException();
+            }
+        });
+        lifecycle.onNext(Event.CREATE);
+
+        TestObserver<String> testObserver = stream.compose(hub.<String>bindToLifecycle()).test();
+        testObserver.assertError(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void subscribesToLifecycleOnce() {
+        assertEquals(0, subscriptions.get());
+
+        lifecycle.onNext(Event.CREATE);
+        stream.compose(hub.<String>bindToLifecycle()).test();
+        stream.compose(hub.<String>bindUntilEvent(Event.STOP)).test();
+        stream.compose(hub.<String>bindUntilEvent(Event.DESTROY)).test();
+
+        assertEquals(1, subscriptions.get());
+    }
+
+    @Test
+    public void unsubscribesFromLifecycleWithoutBindings() {
+        lifecycle.onNext(Event.CREATE);
+        TestObserver<String> untilObserver = stream.compose(hub.<String>bindUntilEvent(Event.STOP)).test();
+        TestObserver<String> anyObserver =
+            stream.compose(hub.<String>bindUntilAnyEvent(EnumSet.of(Event.STOP))).test();
+
+        untilObserver.dispose();
+        assertTrue(lifecycle.hasObservers());
+        anyObserver.dispose();
+        assertFalse(lifecycle.hasObservers());
+
+        // The next binding subscribes again, and sees the events it missed replayed
+        lifecycle.onNext(Event.START);
+        TestObserver<String> testObserver = stream.compose(hub.<String>bindToLifecycle()).test();
+        assertEquals(2, subscriptions.get());
+
+        lifecycle.onNext(Event.STOP);
+        testObserver.assertResult();
+        assertFalse(lifecycle.hasObservers());
+    }
+
+    @Test
+    public void unsubscribesFromLifecycleWhenItTerminates() {
+        stream.compose(hub.<String>bindUntilEvent(Event.STOP)).test();
+
+        lifecycle.onComplete();
+        assertNull(hub.connection);
+        stream.compose(hub.<String>bindUntilEvent(Event.STOP)).test().assertResult();
+        assertEquals(1, subscriptions.get());
+    }
+
+    @Test
+    public void disposeRemovesBinding() {
+        lifecycle.onNext(Event.CREATE);
+        TestObserver<String> untilObserver = stream.compose(hub.<String>bindUntilEvent(Event.STOP)).test();
+        TestObserver<String> correspondingObserver = stream.compose(hub.<String>bindToLifecycle()).test();
+
+        TestObserver<String> anyObserver =
+            stream.compose(hub.<String>bindUntilAnyEvent(EnumSet.of(Event.STOP))).test();
+
+        untilObserver.dispose();
+        correspondingObserver.dispose();
+        anyObserver.dispose();
+
+        for (LifecycleHub.Binding<Event> head : hub.heads) {
+            assertNull(head);
+        }
+    }
+
+    @Test
+    public void lifecycleCompletes() {
+        lifecycle.onNext(Event.CREATE);
+        TestObserver<String> testObserver = stream.compose(hub.<String>bindToLifecycle()).test();
+
+        lifecycle.onComplete();
+        testObserver.assertResult();
+
+        // Anything bound afterwards ends immediately
+        stream.compose(hub.<String>bindUntilEvent(Event.STOP)).test().assertResult();
+    }
+
+    @Test
+    public void lifecycleErrors() {
+        TestObserver<String> testObserver = stream.compose(hub.<String>bindUntilEvent(Event.STOP)).test();
+
+        lifecycle.onError(new IllegalStateException());
+        testObserver.assertError(IllegalStateException.class);
+    }
+
+    @Test
+    public void disposesInlineByDefault() {
+        lifecycle.onNext(Event.CREATE);
+        TestObserver<String> testObserver = stream.compose(hub.<String>bindToLifecycle()).test();
+
+        lifecycle.onNext(Event.DESTROY);
+        testObserver.assertResult();
+        assertFalse(stream.hasObservers());
+    }
+
+    @Test
+    public void disposesBatchOnScheduler() {
+        TestScheduler scheduler = new TestScheduler();
+        RxLifecycle.setDisposeScheduler(scheduler);
+
+        PublishSubject<String> other = PublishSubject.create();
+        lifecycle.onNext(Event.CREATE);
+        TestObserver<String> first = stream.compose(hub.<String>bindToLifecycle()).test();
+        TestObserver<String> second = other.compose(hub.<String>bindUntilEvent(Event.DESTROY)).test();
+
+        lifecycle.onNext(Event.DESTROY);
+        first.assertResult();
+        second.assertResult();
+        assertTrue(stream.hasObservers());
+        assertTrue(other.hasObservers());
+
+        // Items arriving before the batch runs are dropped
+        stream.onNext("1");
+        first.assertResult();
+
+        scheduler.triggerActions();
+        assertFalse(stream.hasObservers());
+        assertFalse(other.hasObservers());
+    }
+
+    @Test
+    public void cancelsFlowableBatchOnScheduler() {
+        TestScheduler scheduler = new TestScheduler();
+        RxLifecycle.setDisposeScheduler(scheduler);
+
+        PublishProcessor<String> processor = PublishProcessor.create();
+        lifecycle.onNext(Event.CREATE);
+        TestSubscriber<String> testSubscriber = processor.compose(hub.<String>bindToLifecycle()).test();
+
+        lifecycle.onNext(Event.DESTROY);
+        testSubscriber.assertResult();
+        assertTrue(processor.hasSubscribers());
+
+        scheduler.triggerActions();
+        assertFalse(processor.hasSubscribers());
+    }
+
+    @Test
+    public void batchDisposesPastFailingSource() {
+        TestScheduler scheduler = new TestScheduler();
+        RxLifecycle.setDisposeScheduler(scheduler);
+        final List<Throwable> errors = new ArrayList<>();
+        RxJavaPlugins.setErrorHandler(new Consumer<Throwable>() {
+            @Override
+            public void accept(Throwable t) throws Exception {
+                errors.add(t);
+            }
+        });
+
+        try {
+            lifecycle.onNext(Event.CREATE);
+            // Surround the well-behaved source, so that one failing source is disposed before it either way
+            new FailingDisposeObservable().compose(hub.<String>bindToLifecycle()).test();
+            stream.compose(hub.<String>bindToLifecycle()).test();
+            new FailingDisposeObservable().compose(hub.<String>bindToLifecycle()).test();
+
+            lifecycle.onNext(Event.DESTROY);
+            scheduler.triggerActions();
+
+            assertFalse(stream.hasObservers());
+            assertEquals(2, errors.size());
+            assertTrue(errors.get(0) instanceof IllegalStateException);
+        }
+        finally {
+            RxJavaPlugins.reset();
+        }
+    }
+
+    @Test
+    public void bindingOutsideLifecycleDisposesInline() {
+        TestScheduler scheduler = new TestScheduler();
+        RxLifecycle.setDisposeScheduler(scheduler);
+
+        lifecycle.onNext(Event.DESTROY);
+        stream.compose(hub.<String>bindToLifecycle()).test().assertResult();
+        assertFalse(stream.hasObservers());
+    }
+
+    // Null checks
+
+    @Test(expected = NullPointerException.class)
+    public void testCreateThrowsOnNullLifecycle() {
+        //noinspection ResourceType
+        LifecycleHub.create(null, Event.class, CORRESPONDING_EVENTS);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testBindUntilThrowsOnNullEvent() {
+        //noinspection ResourceType
+        hub.bindUntilEvent(null);
+    }
+
+    static final class FailingDisposeObservable extends Observable<String> {
+
+        @Override
+        protected void subscribeActual(Observer<? super String> observer) {
+            observer.onSubscribe(new Disposable() {
+                @Override
+                public void dispose() {
+                    throw new IllegalStateException("dispose failed");
+                }
+
+                @Override
+                public boolean isDisposed() {
+                    return false;
+                }
+            });
+        }
+    }
+
+    enum Event {
+        CREATE,
+        START,
+        STOP,
+        DESTROY
+    }
+
+    private static final Function<Event, Event> CORRESPONDING_EVENTS = new Function<Event, Event>() {
+        @Override
+        public Event apply(Event event) throws Exception {
+            switch (event) {
+                case CREATE:
+                    return Event.DESTROY;
+                case START:
+                    return Event.STOP;
+                case STOP:
+                    return Event.DESTROY;
+                default:
+                    throw new OutsideLifecycleException("Outside of lifecycle");
+            }
+        }
+    };
+}
@@ -0,0 +1,172 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.rxjava3.observers.TestObserver;
+import io.reactivex.rxjava3.schedulers.TestScheduler;
+import io.reactivex.rxjava3.subjects.PublishSubject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LifecycleLeakDetectorTest {
+
+    PublishSubject<String> stream;
+    LifecycleEventSource<Event> lifecycle;
+    LifecycleHub<Event> hub;
+    TestScheduler scheduler;
+    List<LifecycleLeakDetector.LeakedBindingException> leaks;
+    LifecycleLeakDetector detector;
+
+    @Before
+    public void setup() {
+        stream = PublishSubject.create();
+        lifecycle = LifecycleEventSource.create();
+        hub = LifecycleHub.createCorresponding(lifecycle.asObservable(), Event.class, CORRESPONDING_EVENTS);
+        scheduler = new TestScheduler();
+        leaks = new ArrayList<>();
+        detector = LifecycleLeakDetector.create(5, TimeUnit.SECONDS, scheduler,
+            new LifecycleLeakDetector.Listener() {
+                @Override
+                public void onLeak(LifecycleLeakDetector.LeakedBindingException leak) {
+                    leaks.add(leak);
+                }
+            });
+        RxLifecycle.setMonitor(detector);
+    }
+
+    @After
+    public void tearDown() {
+        RxLifecycle.setMonitor(null);
+    }
+
+    @Test
+    public void reportsLeakAfterGracePeriod() {
+        lifecycle.onNext(Event.CREATE);
+        stream.compose(hub.<String>bindUntilEvent(Event.START)).test();
+        stream.compose(hub.<String>bindToLifecycle()).test();
+
+        lifecycle.onNext(Event.DESTROY);
+        scheduler.advanceTimeBy(4, TimeUnit.SECONDS);
+        assertTrue(leaks.isEmpty());
+
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+        assertEquals(1, leaks.size());
+        assertEquals("Binding is still subscribed 5000 ms after DESTROY", leaks.get(0).getMessage());
+        assertTrue(leaks.get(0).getStackTrace().length > 0);
+    }
+
+    @Test
+    public void disposedBindingsAreNotReported() {
+        lifecycle.onNext(Event.CREATE);
+        TestObserver<String> testObserver = stream.compose(hub.<String>bindUntilEvent(Event.START)).test();
+
+        lifecycle.onNext(Event.DESTROY);
+        testObserver.dispose();
+        scheduler.advanceTimeBy(5, TimeUnit.SECONDS);
+
+        assertTrue(leaks.isEmpty());
+    }
+
+    @Test
+    public void completedBindingsAreNotReported() {
+        lifecycle.onNext(Event.CREATE);
+        stream.compose(hub.<String>bindUntilEvent(Event.START)).test();
+        stream.onComplete();
+
+        lifecycle.onNext(Event.DESTROY);
+        scheduler.advanceTimeBy(5, TimeUnit.SECONDS);
+
+        assertTrue(leaks.isEmpty());
+    }
+
+    @Test
+    public void nothingReportedBeforeLifecycleEnds() {
+        lifecycle.onNext(Event.CREATE);
+        stream.compose(hub.<String>bindUntilEvent(Event.START)).test();
+
+        lifecycle.onNext(Event.STOP);
+        scheduler.advanceTimeBy(1, TimeUnit.MINUTES);
+
+        assertTrue(leaks.isEmpty());
+    }
+
+    @Test
+    public void bindingsOutsideHubsAreNotTracked() {
+        PublishSubject<Event> other = PublishSubject.create();
+        stream.compose(RxLifecycle.<String, Event>bindUntilEvent(other, Event.START)).test();
+
+        lifecycle.onNext(Event.DESTROY);
+        scheduler.advanceTimeBy(5, TimeUnit.SECONDS);
+
+        assertTrue(leaks.isEmpty());
+    }
+
+    @Test
+    public void windowBindingsAreTracked() {
+        lifecycle.onNext(Event.CREATE);
+        stream.compose(hub.<String>bindWhileIn(Event.START, Event.STOP)).test();
+        assertEquals(1, detector.bindings.get(hub).size());
+
+        lifecycle.onNext(Event.DESTROY);
+        assertTrue(detector.bindings.get(hub).isEmpty());
+        scheduler.advanceTimeBy(5, TimeUnit.SECONDS);
+        assertTrue(leaks.isEmpty());
+    }
+
+    @Test
+    public void unendedBindingsDoNotKeepTheirHubAround() throws InterruptedException {
+        WeakReference<LifecycleHub<Event>> ref = bindToUnreachableHub();
+        for (int i = 0; i < 20 && ref.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertNull(ref.get());
+    }
+
+    private static WeakReference<LifecycleHub<Event>> bindToUnreachableHub() {
+        LifecycleEventSource<Event> lifecycle = LifecycleEventSource.create();
+        LifecycleHub<Event> hub =
+            LifecycleHub.createCorresponding(lifecycle.asObservable(), Event.class, CORRESPONDING_EVENTS);
+        lifecycle.onNext(Event.CREATE);
+        PublishSubject.<String>create().compose(hub.<String>bindUntilEvent(Event.START)).test();
+        return new WeakReference<>(hub);
+    }
+
+    private static final CorrespondingEvents<Event> CORRESPONDING_EVENTS = CorrespondingEvents.builder(Event.class)
+        .map(Event.CREATE, Event.DESTROY)
+        .map(Event.START, Event.STOP)
+        .map(Event.STOP, Event.DESTROY)
+        .outside(Event.DESTROY)
+        .build();
+
+    enum Event {
+        CREATE,
+        START,
+        STOP,
+        DESTROY
+    }
+}
@@ -0,0 +1,317 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.reactivex.rxjava3.functions.Consumer;
+import io.reactivex.rxjava3.observers.TestObserver;
+import io.reactivex.rxjava3.subjects.BehaviorSubject;
+import io.reactivex.rxjava3.subjects.PublishSubject;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LifecyclePauseTransformerTest {
+
+    PublishSubject<String> stream;
+    BehaviorSubject<Event> lifecycle;
+
+    @Before
+    public void setup() {
+        stream = PublishSubject.create();
+        lifecycle = BehaviorSubject.create();
+    }
+
+    private TestObserver<String> bind(int capacity) {
+        return stream
+            .compose(RxLifecycle.<String, Event>bufferWhilePaused(lifecycle, Event.PAUSE, Event.RESUME, capacity))
+            .test();
+    }
+
+    @Test
+    public void passesThroughWhileResumed() {
+        lifecycle.onNext(Event.RESUME);
+        TestObserver<String> testObserver = bind(4);
+
+        stream.onNext("1");
+        stream.onNext("2");
+
+        testObserver.assertValues("1", "2");
+    }
+
+    @Test
+    public void holdsBackUntilResume() {
+        lifecycle.onNext(Event.RESUME);
+        TestObserver<String> testObserver = bind(4);
+
+        stream.onNext("1");
+        lifecycle.onNext(Event.PAUSE);
+        stream.onNext("2");
+        lifecycle.onNext(Event.STOP);
+        stream.onNext("3");
+        testObserver.assertValues("1");
+        assertTrue(stream.hasObservers());
+
+        lifecycle.onNext(Event.START);
+        testObserver.assertValues("1");
+
+        lifecycle.onNext(Event.RESUME);
+        stream.onNext("4");
+        testObserver.assertValues("1", "2", "3", "4");
+        testObserver.assertNotComplete();
+    }
+
+    @Test
+    public void pausedUntilFirstResume() {
+        lifecycle.onNext(Event.CREATE);
+        TestObserver<String> testObserver = bind(4);
+
+        stream.onNext("1");
+        testObserver.assertNoValues();
+
+        lifecycle.onNext(Event.RESUME);
+        testObserver.assertValues("1");
+    }
+
+    @Test
+    public void fullBufferKeepsLatest() {
+        lifecycle.onNext(Event.PAUSE);
+        TestObserver<String> testObserver = bind(3);
+
+        for (int i = 1; i <= 7; i++) {
+            stream.onNext(String.valueOf(i));
+        }
+        lifecycle.onNext(Event.RESUME);
+
+        testObserver.assertValues("5", "6", "7");
+    }
+
+    @Test
+    public void bufferIsReused() {
+        lifecycle.onNext(Event.PAUSE);
+        TestObserver<String> testObserver = bind(2);
+
+        stream.onNext("1");
+        stream.onNext("2");
+        stream.onNext("3");
+        lifecycle.onNext(Event.RESUME);
+        lifecycle.onNext(Event.PAUSE);
+        stream.onNext("4");
+        lifecycle.onNext(Event.RESUME);
+
+        testObserver.assertValues("2", "3", "4");
+    }
+
+    @Test
+    public void completionWaitsForResume() {
+        lifecycle.onNext(Event.PAUSE);
+        TestObserver<String> testObserver = bind(4);
+
+        stream.onNext("1");
+        stream.onComplete();
+        testObserver.assertNotComplete();
+        assertTrue(lifecycle.hasObservers());
+
+        lifecycle.onNext(Event.RESUME);
+        testObserver.assertResult("1");
+        assertFalse(lifecycle.hasObservers());
+    }
+
+    @Test
+    public void errorWaitsForResume() {
+        lifecycle.onNext(Event.PAUSE);
+        TestObserver<String> testObserver = bind(4);
+
+        stream.onNext("1");
+        stream.onError(new RuntimeException());
+        testObserver.assertNoErrors();
+
+        lifecycle.onNext(Event.RESUME);
+        testObserver.assertFailure(RuntimeException.class, "1");
+    }
+
+    @Test
+    public void lifecycleErrorDropsBuffer() {
+        lifecycle.onNext(Event.PAUSE);
+        TestObserver<String> testObserver = bind(4);
+
+        stream.onNext("1");
+        lifecycle.onError(new IllegalStateException());
+
+        testObserver.assertFailure(IllegalStateException.class);
+        assertFalse(stream.hasObservers());
+    }
+
+    @Test
+    public void lifecycleCompletionDropsBuffer() {
+        lifecycle.onNext(Event.PAUSE);
+        TestObserver<String> testObserver = bind(4);
+
+        stream.onNext("1");
+        lifecycle.onComplete();
+
+        testObserver.assertResult();
+        assertFalse(stream.hasObservers());
+    }
+
+    @Test
+    public void lifecycleCompletionDeliversHeldError() {
+        lifecycle.onNext(Event.PAUSE);
+        TestObserver<String> testObserver = bind(4);
+
+        stream.onNext("1");
+        stream.onError(new RuntimeException());
+        lifecycle.onComplete();
+
+        testObserver.assertFailure(RuntimeException.class);
+    }
+
+    @Test
+    public void itemsDuringResumeAreNotDropped() {
+        lifecycle.onNext(Event.PAUSE);
+        TestObserver<String> testObserver = stream
+            .compose(RxLifecycle.<String, Event>bufferWhilePaused(lifecycle, Event.PAUSE, Event.RESUME, 2))
+            .doOnNext(new Consumer<String>() {
+                @Override
+                public void accept(String item) {
+                    if (item.equals("1")) {
+                        stream.onNext("3");
+                        stream.onNext("4");
+                        stream.onNext("5");
+                    }
+                }
+            })
+            .test();
+
+        stream.onNext("1");
+        stream.onNext("2");
+        lifecycle.onNext(Event.RESUME);
+
+        testObserver.assertValues("1", "2", "3", "4", "5");
+    }
+
+    @Test
+    public void hubEndsWithoutResume() {
+        lifecycle.onNext(Event.RESUME);
+        TestObserver<String> testObserver = stream
+            .compose(createHub().<String>bufferWhilePaused(Event.PAUSE, Event.RESUME, 4))
+            .test();
+
+        lifecycle.onNext(Event.PAUSE);
+        stream.onNext("1");
+        lifecycle.onNext(Event.STOP);
+        testObserver.assertEmpty();
+
+        lifecycle.onNext(Event.DESTROY);
+        testObserver.assertResult();
+        assertFalse(stream.hasObservers());
+    }
+
+    @Test
+    public void hubDeliversHeldCompletionWithoutResume() {
+        lifecycle.onNext(Event.RESUME);
+        TestObserver<String> testObserver = stream
+            .compose(createHub().<String>bufferWhilePaused(Event.PAUSE, Event.RESUME, 4))
+            .test();
+
+        lifecycle.onNext(Event.PAUSE);
+        stream.onNext("1");
+        stream.onComplete();
+        lifecycle.onNext(Event.STOP);
+        testObserver.assertEmpty();
+
+        lifecycle.onNext(Event.DESTROY);
+        testObserver.assertResult();
+    }
+
+    @Test
+    public void hubHoldsBackUntilResume() {
+        lifecycle.onNext(Event.RESUME);
+        TestObserver<String> testObserver = stream
+            .compose(createHub().<String>bufferWhilePaused(Event.PAUSE, Event.RESUME, 4))
+            .test();
+
+        stream.onNext("1");
+        lifecycle.onNext(Event.PAUSE);
+        stream.onNext("2");
+        lifecycle.onNext(Event.STOP);
+        lifecycle.onNext(Event.START);
+        testObserver.assertValues("1");
+
+        lifecycle.onNext(Event.RESUME);
+        testObserver.assertValues("1", "2");
+        testObserver.assertNotComplete();
+    }
+
+    @Test
+    public void dispose() {
+        lifecycle.onNext(Event.PAUSE);
+        TestObserver<String> testObserver = bind(4);
+
+        stream.onNext("1");
+        testObserver.dispose();
+
+        assertFalse(stream.hasObservers());
+        assertFalse(lifecycle.hasObservers());
+        lifecycle.onNext(Event.RESUME);
+        testObserver.assertEmpty();
+    }
+
+    @Test
+    public void pauseBeforeResumeInDeclarationOrder() {
+        lifecycle.onNext(Event.START);
+        TestObserver<String> testObserver = stream
+            .compose(RxLifecycle.<String, Event>bufferWhilePaused(lifecycle, Event.STOP, Event.DESTROY, 4))
+            .test();
+
+        stream.onNext("1");
+        lifecycle.onNext(Event.STOP);
+        stream.onNext("2");
+        testObserver.assertValues("1");
+
+        lifecycle.onNext(Event.DESTROY);
+        testObserver.assertValues("1", "2");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void samePauseAndResumeThrows() {
+        RxLifecycle.bufferWhilePaused(lifecycle, Event.PAUSE, Event.PAUSE, 4);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroCapacityThrows() {
+        RxLifecycle.bufferWhilePaused(lifecycle, Event.PAUSE, Event.RESUME, 0);
+    }
+
+    private LifecycleHub<Event> createHub() {
+        return LifecycleHub.createCorresponding(lifecycle, Event.class, new CorrespondingEventsFunction<Event>() {
+            @Override
+            public Event apply(Event event) {
+                return event == Event.DESTROY ? null : Event.DESTROY;
+            }
+        });
+    }
+
+    enum Event {
+        CREATE,
+        START,
+        RESUME,
+        PAUSE,
+        STOP,
+        DESTROY
+    }
+}
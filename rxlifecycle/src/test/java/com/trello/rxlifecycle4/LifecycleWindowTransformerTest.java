@@ -0,0 +1,296 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.reactivex.rxjava3.core.BackpressureStrategy;
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.functions.Consumer;
+import io.reactivex.rxjava3.observers.TestObserver;
+import io.reactivex.rxjava3.subjects.BehaviorSubject;
+import io.reactivex.rxjava3.subjects.PublishSubject;
+import io.reactivex.rxjava3.subscribers.TestSubscriber;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LifecycleWindowTransformerTest {
+
+    PublishSubject<String> stream;
+    BehaviorSubject<Event> lifecycle;
+    AtomicInteger subscriptions;
+    Observable<String> source;
+
+    @Before
+    public void setup() {
+        stream = PublishSubject.create();
+        lifecycle = BehaviorSubject.create();
+        subscriptions = new AtomicInteger();
+        source = stream.doOnSubscribe(new Consumer<Object>() {
+            @Override
+            public void accept(Object ignored) {
+                subscriptions.incrementAndGet();
+            }
+        });
+    }
+
+    @Test
+    public void subscribesWithinWindow() {
+        TestObserver<String> testObserver = source
+            .compose(RxLifecycle.<String, Event>bindWhileIn(lifecycle, Event.START, Event.STOP))
+            .test();
+
+        lifecycle.onNext(Event.CREATE);
+        stream.onNext("before");
+        assertFalse(stream.hasObservers());
+
+        lifecycle.onNext(Event.START);
+        stream.onNext("1");
+        lifecycle.onNext(Event.RESUME);
+        lifecycle.onNext(Event.PAUSE);
+        stream.onNext("2");
+
+        lifecycle.onNext(Event.STOP);
+        assertFalse(stream.hasObservers());
+        stream.onNext("after");
+
+        testObserver.assertValues("1", "2");
+        testObserver.assertNotComplete();
+        assertEquals(1, subscriptions.get());
+    }
+
+    @Test
+    public void resubscribesOnReentry() {
+        TestObserver<String> testObserver = source
+            .compose(RxLifecycle.<String, Event>bindWhileIn(lifecycle, Event.START, Event.STOP))
+            .test();
+
+        lifecycle.onNext(Event.START);
+        stream.onNext("1");
+        lifecycle.onNext(Event.STOP);
+        lifecycle.onNext(Event.START);
+        stream.onNext("2");
+
+        testObserver.assertValues("1", "2");
+        assertEquals(2, subscriptions.get());
+    }
+
+    @Test
+    public void alreadyWithinWindow() {
+        lifecycle.onNext(Event.RESUME);
+
+        TestObserver<String> testObserver = source
+            .compose(RxLifecycle.<String, Event>bindWhileIn(lifecycle, Event.START, Event.STOP))
+            .test();
+        stream.onNext("1");
+
+        testObserver.assertValues("1");
+    }
+
+    @Test
+    public void sourceCompletesWithinWindow() {
+        TestObserver<String> testObserver = Observable.just("1")
+            .compose(RxLifecycle.<String, Event>bindWhileIn(lifecycle, Event.START, Event.STOP))
+            .test();
+
+        lifecycle.onNext(Event.START);
+        lifecycle.onNext(Event.STOP);
+        lifecycle.onNext(Event.START);
+
+        testObserver.assertValues("1", "1");
+        testObserver.assertNotComplete();
+    }
+
+    @Test
+    public void lifecycleCompletes() {
+        TestObserver<String> testObserver = source
+            .compose(RxLifecycle.<String, Event>bindWhileIn(lifecycle, Event.START, Event.STOP))
+            .test();
+
+        lifecycle.onNext(Event.START);
+        lifecycle.onComplete();
+
+        testObserver.assertComplete();
+        assertFalse(stream.hasObservers());
+    }
+
+    @Test
+    public void sourceErrorEndsBinding() {
+        TestObserver<String> testObserver = source
+            .compose(RxLifecycle.<String, Event>bindWhileIn(lifecycle, Event.START, Event.STOP))
+            .test();
+
+        lifecycle.onNext(Event.START);
+        stream.onError(new RuntimeException());
+
+        testObserver.assertError(RuntimeException.class);
+        assertFalse(lifecycle.hasObservers());
+    }
+
+    @Test
+    public void flowable() {
+        TestSubscriber<String> testSubscriber = source.toFlowable(BackpressureStrategy.BUFFER)
+            .compose(RxLifecycle.<String, Event>bindWhileIn(lifecycle, Event.START, Event.STOP))
+            .test();
+
+        lifecycle.onNext(Event.START);
+        stream.onNext("1");
+        lifecycle.onNext(Event.STOP);
+        stream.onNext("2");
+        lifecycle.onNext(Event.START);
+        stream.onNext("3");
+
+        testSubscriber.assertValues("1", "3");
+        assertEquals(2, subscriptions.get());
+
+        testSubscriber.cancel();
+        assertFalse(stream.hasObservers());
+        assertFalse(lifecycle.hasObservers());
+    }
+
+    @Test
+    public void hub() {
+        LifecycleHub<Event> hub = createHub(lifecycle);
+
+        TestObserver<String> testObserver = source.compose(hub.<String>bindWhileIn(Event.START, Event.STOP)).test();
+        lifecycle.onNext(Event.START);
+        assertTrue(stream.hasObservers());
+        stream.onNext("1");
+        lifecycle.onNext(Event.STOP);
+        assertFalse(stream.hasObservers());
+        lifecycle.onNext(Event.START);
+        stream.onNext("2");
+
+        testObserver.assertValues("1", "2");
+        testObserver.assertNotComplete();
+        assertEquals(2, subscriptions.get());
+    }
+
+    @Test
+    public void hubEndsAtDestroy() {
+        LifecycleHub<Event> hub = createHub(lifecycle);
+
+        TestObserver<String> testObserver = source.compose(hub.<String>bindWhileIn(Event.START, Event.STOP)).test();
+        lifecycle.onNext(Event.START);
+        lifecycle.onNext(Event.STOP);
+        lifecycle.onNext(Event.DESTROY);
+
+        testObserver.assertComplete();
+        assertFalse(stream.hasObservers());
+    }
+
+    @Test
+    public void hubEndsAtDestroyWithinWindow() {
+        LifecycleHub<Event> hub = createHub(lifecycle);
+
+        TestObserver<String> testObserver = source.compose(hub.<String>bindWhileIn(Event.CREATE, Event.DESTROY)).test();
+        lifecycle.onNext(Event.CREATE);
+        assertTrue(stream.hasObservers());
+        lifecycle.onNext(Event.DESTROY);
+
+        testObserver.assertComplete();
+        assertFalse(stream.hasObservers());
+    }
+
+    @Test
+    public void hubAfterDestroy() {
+        LifecycleHub<Event> hub = createHub(lifecycle);
+        lifecycle.onNext(Event.DESTROY);
+
+        source.compose(hub.<String>bindWhileIn(Event.START, Event.STOP)).test().assertResult();
+        assertEquals(0, subscriptions.get());
+    }
+
+    @Test
+    public void hubDispose() {
+        LifecycleHub<Event> hub = createHub(lifecycle);
+
+        TestObserver<String> testObserver = source.compose(hub.<String>bindWhileIn(Event.START, Event.STOP)).test();
+        lifecycle.onNext(Event.START);
+        testObserver.dispose();
+
+        assertFalse(stream.hasObservers());
+        assertNull(hub.heads[Event.STOP.ordinal()]);
+        assertNull(hub.heads[Event.DESTROY.ordinal()]);
+    }
+
+    @Test
+    public void hubSharesLifecycleSubscription() {
+        final AtomicInteger lifecycleSubscriptions = new AtomicInteger();
+        LifecycleHub<Event> hub = createHub(lifecycle.doOnSubscribe(new Consumer<Object>() {
+            @Override
+            public void accept(Object ignored) {
+                lifecycleSubscriptions.incrementAndGet();
+            }
+        }));
+
+        source.compose(hub.<String>bindWhileIn(Event.START, Event.STOP)).test();
+        source.compose(hub.<String>bindWhileIn(Event.RESUME, Event.PAUSE)).test();
+        lifecycle.onNext(Event.START);
+        lifecycle.onNext(Event.RESUME);
+
+        assertEquals(1, lifecycleSubscriptions.get());
+        assertEquals(2, subscriptions.get());
+    }
+
+    @Test
+    public void hubFlowable() {
+        LifecycleHub<Event> hub = createHub(lifecycle);
+
+        TestSubscriber<String> testSubscriber = source.toFlowable(BackpressureStrategy.BUFFER)
+            .compose(hub.<String>bindWhileIn(Event.START, Event.STOP))
+            .test();
+        lifecycle.onNext(Event.START);
+        stream.onNext("1");
+        lifecycle.onNext(Event.DESTROY);
+
+        testSubscriber.assertResult("1");
+        assertFalse(stream.hasObservers());
+    }
+
+    private static LifecycleHub<Event> createHub(Observable<Event> lifecycle) {
+        return LifecycleHub.createCorresponding(lifecycle, Event.class, new CorrespondingEventsFunction<Event>() {
+            @Override
+            public Event apply(Event event) {
+                return event == Event.DESTROY ? null : Event.DESTROY;
+            }
+        });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void endBeforeStartThrows() {
+        RxLifecycle.bindWhileIn(lifecycle, Event.STOP, Event.START);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void emptyWindowThrows() {
+        RxLifecycle.bindWhileIn(lifecycle, Event.START, Event.START);
+    }
+
+    enum Event {
+        CREATE,
+        START,
+        RESUME,
+        PAUSE,
+        STOP,
+        DESTROY
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.reactivex.rxjava3.observers.TestObserver;
+import io.reactivex.rxjava3.subjects.BehaviorSubject;
+import io.reactivex.rxjava3.subjects.PublishSubject;
+import io.reactivex.rxjava3.subjects.MaybeSubject;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MaybeTakeUntilLifecycleTest {
+
+    MaybeSubject<String> maybe;
+    PublishSubject<String> lifecycle;
+
+    @Before
+    public void setup() {
+        maybe = MaybeSubject.create();
+        lifecycle = PublishSubject.create();
+    }
+
+    @Test
+    public void lifecycleEventCompletesAndDisposesBoth() {
+        TestObserver<String> testObserver = maybe.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+        assertTrue(maybe.hasObservers());
+        assertTrue(lifecycle.hasObservers());
+
+        lifecycle.onNext("stop");
+
+        testObserver.assertResult();
+        assertFalse(maybe.hasObservers());
+        assertFalse(lifecycle.hasObservers());
+    }
+
+    @Test
+    public void upstreamSuccessDisposesLifecycle() {
+        TestObserver<String> testObserver = maybe.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+
+        maybe.onSuccess("1");
+
+        testObserver.assertResult("1");
+        assertFalse(lifecycle.hasObservers());
+    }
+
+    @Test
+    public void upstreamCompleteDisposesLifecycle() {
+        TestObserver<String> testObserver = maybe.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+
+        maybe.onComplete();
+
+        testObserver.assertResult();
+        assertFalse(lifecycle.hasObservers());
+    }
+
+    @Test
+    public void upstreamErrorDisposesLifecycle() {
+        TestObserver<String> testObserver = maybe.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+
+        maybe.onError(new IllegalStateException());
+
+        testObserver.assertError(IllegalStateException.class);
+        assertFalse(lifecycle.hasObservers());
+    }
+
+    @Test
+    public void lifecycleErrorDisposesUpstream() {
+        TestObserver<String> testObserver = maybe.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+
+        lifecycle.onError(new IllegalStateException());
+
+        testObserver.assertError(IllegalStateException.class);
+        assertFalse(maybe.hasObservers());
+    }
+
+    @Test
+    public void lifecycleCompleteCompletes() {
+        TestObserver<String> testObserver = maybe.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+
+        lifecycle.onComplete();
+
+        testObserver.assertResult();
+        assertFalse(maybe.hasObservers());
+    }
+
+    @Test
+    public void disposeDisposesBoth() {
+        TestObserver<String> testObserver = maybe.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+
+        testObserver.dispose();
+
+        assertFalse(maybe.hasObservers());
+        assertFalse(lifecycle.hasObservers());
+    }
+
+    @Test
+    public void lifecycleAlreadyEnded() {
+        BehaviorSubject<String> lifecycle = BehaviorSubject.createDefault("stop");
+
+        TestObserver<String> testObserver = maybe.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+
+        testObserver.assertResult();
+        assertFalse(maybe.hasObservers());
+        assertFalse(lifecycle.hasObservers());
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.reactivex.rxjava3.functions.Consumer;
+import io.reactivex.rxjava3.observers.TestObserver;
+import io.reactivex.rxjava3.subjects.BehaviorSubject;
+import io.reactivex.rxjava3.subjects.PublishSubject;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ObservableTakeUntilLifecycleTest {
+
+    PublishSubject<String> stream;
+    PublishSubject<String> lifecycle;
+
+    @Before
+    public void setup() {
+        stream = PublishSubject.create();
+        lifecycle = PublishSubject.create();
+    }
+
+    @Test
+    public void lifecycleEventDisposesBoth() {
+        TestObserver<String> testObserver = stream.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+        assertTrue(stream.hasObservers());
+        assertTrue(lifecycle.hasObservers());
+
+        stream.onNext("1");
+        lifecycle.onNext("stop");
+
+        testObserver.assertResult("1");
+        assertFalse(stream.hasObservers());
+        assertFalse(lifecycle.hasObservers());
+    }
+
+    @Test
+    public void upstreamCompleteDisposesLifecycle() {
+        TestObserver<String> testObserver = stream.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+
+        stream.onNext("1");
+        stream.onComplete();
+
+        testObserver.assertResult("1");
+        assertFalse(lifecycle.hasObservers());
+    }
+
+    @Test
+    public void upstreamErrorDisposesLifecycle() {
+        TestObserver<String> testObserver = stream.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+
+        stream.onError(new IllegalStateException());
+
+        testObserver.assertError(IllegalStateException.class);
+        assertFalse(lifecycle.hasObservers());
+    }
+
+    @Test
+    public void lifecycleErrorDisposesUpstream() {
+        TestObserver<String> testObserver = stream.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+
+        lifecycle.onError(new IllegalStateException());
+
+        testObserver.assertError(IllegalStateException.class);
+        assertFalse(stream.hasObservers());
+    }
+
+    @Test
+    public void lifecycleCompleteCompletes() {
+        TestObserver<String> testObserver = stream.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+
+        lifecycle.onComplete();
+
+        testObserver.assertResult();
+        assertFalse(stream.hasObservers());
+    }
+
+    @Test
+    public void disposeDisposesBoth() {
+        TestObserver<String> testObserver = stream.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+
+        testObserver.dispose();
+
+        assertFalse(stream.hasObservers());
+        assertFalse(lifecycle.hasObservers());
+    }
+
+    @Test
+    public void lifecycleAlreadyEnded() {
+        BehaviorSubject<String> lifecycle = BehaviorSubject.createDefault("stop");
+
+        TestObserver<String> testObserver = stream.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+
+        testObserver.assertResult();
+        assertFalse(stream.hasObservers());
+        assertFalse(lifecycle.hasObservers());
+    }
+
+    @Test
+    public void lifecycleEventWhileEmitting() {
+        TestObserver<String> testObserver = stream
+            .compose(RxLifecycle.<String, String>bind(lifecycle))
+            .doOnNext(new Consumer<String>() {
+                @Override
+                public void accept(String s) throws Exception {
+                    lifecycle.onNext("stop");
+                }
+            })
+            .test();
+
+        stream.onNext("1");
+        stream.onNext("2");
+
+        testObserver.assertResult("1");
+    }
+}
@@ -14,16 +14,28 @@
 
 package com.trello.rxlifecycle4;
 
+import org.junit.After;
 import org.junit.Test;
 
+import java.util.concurrent.CancellationException;
+
+import io.reactivex.rxjava3.core.Completable;
 import io.reactivex.rxjava3.exceptions.CompositeException;
 import io.reactivex.rxjava3.functions.Function;
 import io.reactivex.rxjava3.functions.Predicate;
 import io.reactivex.rxjava3.observers.TestObserver;
 import io.reactivex.rxjava3.subjects.PublishSubject;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
 public class OutsideLifecycleExceptionTest {
 
+    @After
+    public void tearDown() {
+        RxLifecycle.setStacklessExceptions(false);
+    }
+
     @Test
     public void eventOutOfLifecycle() {
         PublishSubject<String> stream = PublishSubject.create();
@@ -75,6 +87,31 @@ public class OutsideLifecycleExceptionTest {
         });
     }
 
+    @Test
+    public void capturesStackTraceByDefault() {
+        assertNotEquals(0, new OutsideLifecycleException("").getStackTrace().length);
+        assertNotEquals(0, new LifecycleCancellationException().getStackTrace().length);
+    }
+
+    @Test
+    public void stacklessExceptions() {
+        RxLifecycle.setStacklessExceptions(true);
+        assertEquals(0, new OutsideLifecycleException("").getStackTrace().length);
+
+        PublishSubject<String> lifecycle = PublishSubject.create();
+        TestObserver<Void> testObserver = Completable.never()
+            .compose(RxLifecycle.bindUntilEvent(lifecycle, "stop"))
+            .test();
+        lifecycle.onNext("stop");
+
+        testObserver.assertError(new Predicate<Throwable>() {
+            @Override
+            public boolean test(Throwable throwable) throws Exception {
+                return throwable instanceof CancellationException && throwable.getStackTrace().length == 0;
+            }
+        });
+    }
+
     private static final Function<String, String> CORRESPONDING_EVENTS = new Function<String, String>() {
         @Override
         public String apply(String s) throws Exception {
@@ -0,0 +1,148 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.functions.Consumer;
+import io.reactivex.rxjava3.processors.PublishProcessor;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import io.reactivex.rxjava3.subjects.BehaviorSubject;
+import io.reactivex.rxjava3.subjects.PublishSubject;
+import io.reactivex.rxjava3.subscribers.TestSubscriber;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelTakeUntilLifecycleTest {
+
+    PublishProcessor<Integer> stream;
+    PublishSubject<String> lifecycle;
+
+    @Before
+    public void setup() {
+        stream = PublishProcessor.create();
+        lifecycle = PublishSubject.create();
+    }
+
+    @Test
+    public void lifecycleEventEndsEveryRail() {
+        TestSubscriber<Integer> testSubscriber = stream.parallel(4)
+            .compose(RxLifecycle.<Integer, String>bind(lifecycle))
+            .sequential()
+            .test();
+        assertTrue(stream.hasSubscribers());
+        assertTrue(lifecycle.hasObservers());
+
+        stream.onNext(1);
+        lifecycle.onNext("stop");
+        stream.onNext(2);
+
+        testSubscriber.assertResult(1);
+        assertFalse(stream.hasSubscribers());
+        assertFalse(lifecycle.hasObservers());
+    }
+
+    @Test
+    public void railsShareLifecycleSubscription() {
+        final AtomicInteger subscriptions = new AtomicInteger();
+        Observable<String> lifecycle = this.lifecycle.doOnSubscribe(new Consumer<Disposable>() {
+            @Override
+            public void accept(Disposable disposable) throws Exception {
+                subscriptions.incrementAndGet();
+            }
+        });
+
+        stream.parallel(4).compose(RxLifecycle.<Integer, String>bind(lifecycle)).sequential().test();
+
+        assertEquals(1, subscriptions.get());
+    }
+
+    @Test
+    public void upstreamCompleteDisposesLifecycle() {
+        TestSubscriber<Integer> testSubscriber = stream.parallel(2)
+            .compose(RxLifecycle.<Integer, String>bind(lifecycle))
+            .sequential()
+            .test();
+
+        stream.onNext(1);
+        stream.onComplete();
+
+        testSubscriber.assertResult(1);
+        assertFalse(lifecycle.hasObservers());
+    }
+
+    @Test
+    public void lifecycleErrorFailsRails() {
+        TestSubscriber<Integer> testSubscriber = stream.parallel(2)
+            .compose(RxLifecycle.<Integer, String>bind(lifecycle))
+            .sequential()
+            .test();
+
+        lifecycle.onError(new IllegalStateException());
+
+        testSubscriber.assertError(IllegalStateException.class);
+        assertFalse(stream.hasSubscribers());
+    }
+
+    @Test
+    public void cancelDisposesLifecycle() {
+        TestSubscriber<Integer> testSubscriber = stream.parallel(2)
+            .compose(RxLifecycle.<Integer, String>bind(lifecycle))
+            .sequential()
+            .test();
+
+        testSubscriber.cancel();
+
+        assertFalse(stream.hasSubscribers());
+        assertFalse(lifecycle.hasObservers());
+    }
+
+    @Test
+    public void lifecycleAlreadyEnded() {
+        BehaviorSubject<String> lifecycle = BehaviorSubject.createDefault("stop");
+
+        TestSubscriber<Integer> testSubscriber = stream.parallel(2)
+            .compose(RxLifecycle.<Integer, String>bind(lifecycle))
+            .sequential()
+            .test();
+
+        testSubscriber.assertResult();
+        assertFalse(stream.hasSubscribers());
+        assertFalse(lifecycle.hasObservers());
+    }
+
+    @Test
+    public void railsRunInParallel() {
+        Flowable.range(1, 1000)
+            .parallel(4)
+            .runOn(Schedulers.computation())
+            .compose(RxLifecycle.<Integer, String>bind(lifecycle))
+            .sequential()
+            .test()
+            .awaitDone(5, TimeUnit.SECONDS)
+            .assertValueCount(1000)
+            .assertComplete();
+        assertFalse(lifecycle.hasObservers());
+    }
+}
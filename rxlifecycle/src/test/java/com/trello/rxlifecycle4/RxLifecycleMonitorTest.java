@@ -0,0 +1,342 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.reactivex.rxjava3.core.BackpressureStrategy;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.observers.TestObserver;
+import io.reactivex.rxjava3.processors.PublishProcessor;
+import io.reactivex.rxjava3.subjects.BehaviorSubject;
+import io.reactivex.rxjava3.subjects.CompletableSubject;
+import io.reactivex.rxjava3.subjects.MaybeSubject;
+import io.reactivex.rxjava3.subjects.PublishSubject;
+import io.reactivex.rxjava3.subjects.SingleSubject;
+import io.reactivex.rxjava3.subscribers.TestSubscriber;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RxLifecycleMonitorTest {
+
+    PublishSubject<String> stream;
+    PublishSubject<String> lifecycle;
+    RecordingMonitor monitor;
+
+    @Before
+    public void setup() {
+        stream = PublishSubject.create();
+        lifecycle = PublishSubject.create();
+        monitor = new RecordingMonitor();
+        RxLifecycle.setMonitor(monitor);
+    }
+
+    @After
+    public void tearDown() {
+        RxLifecycle.setMonitor(null);
+    }
+
+    @Test
+    public void lifecycleEnd() {
+        stream.compose(RxLifecycle.<String, String>bindUntilEvent(lifecycle, "stop")).test();
+
+        lifecycle.onNext("start");
+        lifecycle.onNext("stop");
+
+        assertEquals(asList("subscribe 1", "lifecycle 1 stop"), monitor.events);
+    }
+
+    @Test
+    public void lifecycleComplete() {
+        stream.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+
+        lifecycle.onComplete();
+
+        assertEquals(asList("subscribe 1", "lifecycle 1 null"), monitor.events);
+    }
+
+    @Test
+    public void upstreamEnd() {
+        stream.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+        stream.onComplete();
+
+        assertEquals(asList("subscribe 1", "upstream 1"), monitor.events);
+    }
+
+    @Test
+    public void dispose() {
+        TestObserver<String> testObserver = stream.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+        testObserver.dispose();
+        testObserver.dispose();
+        lifecycle.onNext("stop");
+
+        assertEquals(asList("subscribe 1", "dispose 1"), monitor.events);
+    }
+
+    @Test
+    public void endsOnlyOnce() {
+        TestObserver<String> testObserver = stream.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+        lifecycle.onNext("stop");
+        testObserver.dispose();
+
+        assertEquals(asList("subscribe 1", "lifecycle 1 stop"), monitor.events);
+    }
+
+    @Test
+    public void parallelRailsReportOnce() {
+        stream.toFlowable(BackpressureStrategy.BUFFER)
+            .parallel(3)
+            .compose(RxLifecycle.<String, String>bind(lifecycle))
+            .sequential()
+            .test();
+        stream.onComplete();
+
+        assertEquals(asList("subscribe 1", "upstream 1"), monitor.events);
+    }
+
+    @Test
+    public void flowableLifecycleEnd() {
+        PublishProcessor<String> source = PublishProcessor.create();
+        TestSubscriber<String> testSubscriber = source.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+        lifecycle.onNext("stop");
+        testSubscriber.cancel();
+
+        assertEquals(asList("subscribe 1", "lifecycle 1 stop"), monitor.events);
+    }
+
+    @Test
+    public void flowableUpstreamEnd() {
+        PublishProcessor<String> source = PublishProcessor.create();
+        TestSubscriber<String> testSubscriber = source.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+        source.onComplete();
+        lifecycle.onNext("stop");
+        testSubscriber.cancel();
+
+        assertEquals(asList("subscribe 1", "upstream 1"), monitor.events);
+    }
+
+    @Test
+    public void flowableDispose() {
+        PublishProcessor<String> source = PublishProcessor.create();
+        TestSubscriber<String> testSubscriber = source.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+        testSubscriber.cancel();
+        testSubscriber.cancel();
+        lifecycle.onNext("stop");
+
+        assertEquals(asList("subscribe 1", "dispose 1"), monitor.events);
+    }
+
+    @Test
+    public void singleLifecycleEnd() {
+        SingleSubject<String> source = SingleSubject.create();
+        TestObserver<String> testObserver = source.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+        lifecycle.onNext("stop");
+        testObserver.dispose();
+
+        assertEquals(asList("subscribe 1", "lifecycle 1 stop"), monitor.events);
+    }
+
+    @Test
+    public void singleUpstreamEnd() {
+        SingleSubject<String> source = SingleSubject.create();
+        TestObserver<String> testObserver = source.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+        source.onSuccess("1");
+        lifecycle.onNext("stop");
+        testObserver.dispose();
+
+        assertEquals(asList("subscribe 1", "upstream 1"), monitor.events);
+    }
+
+    @Test
+    public void singleDispose() {
+        SingleSubject<String> source = SingleSubject.create();
+        TestObserver<String> testObserver = source.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+        testObserver.dispose();
+        testObserver.dispose();
+        lifecycle.onNext("stop");
+
+        assertEquals(asList("subscribe 1", "dispose 1"), monitor.events);
+    }
+
+    @Test
+    public void maybeLifecycleEnd() {
+        MaybeSubject<String> source = MaybeSubject.create();
+        TestObserver<String> testObserver = source.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+        lifecycle.onNext("stop");
+        testObserver.dispose();
+
+        assertEquals(asList("subscribe 1", "lifecycle 1 stop"), monitor.events);
+    }
+
+    @Test
+    public void maybeUpstreamEnd() {
+        MaybeSubject<String> source = MaybeSubject.create();
+        TestObserver<String> testObserver = source.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+        source.onComplete();
+        lifecycle.onNext("stop");
+        testObserver.dispose();
+
+        assertEquals(asList("subscribe 1", "upstream 1"), monitor.events);
+    }
+
+    @Test
+    public void maybeDispose() {
+        MaybeSubject<String> source = MaybeSubject.create();
+        TestObserver<String> testObserver = source.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+        testObserver.dispose();
+        testObserver.dispose();
+        lifecycle.onNext("stop");
+
+        assertEquals(asList("subscribe 1", "dispose 1"), monitor.events);
+    }
+
+    @Test
+    public void completableLifecycleEnd() {
+        CompletableSubject source = CompletableSubject.create();
+        TestObserver<Void> testObserver = source.compose(RxLifecycle.<Completable, String>bind(lifecycle)).test();
+        lifecycle.onNext("stop");
+        testObserver.dispose();
+
+        assertEquals(asList("subscribe 1", "lifecycle 1 stop"), monitor.events);
+    }
+
+    @Test
+    public void completableUpstreamEnd() {
+        CompletableSubject source = CompletableSubject.create();
+        TestObserver<Void> testObserver = source.compose(RxLifecycle.<Completable, String>bind(lifecycle)).test();
+        source.onComplete();
+        lifecycle.onNext("stop");
+        testObserver.dispose();
+
+        assertEquals(asList("subscribe 1", "upstream 1"), monitor.events);
+    }
+
+    @Test
+    public void completableDispose() {
+        CompletableSubject source = CompletableSubject.create();
+        TestObserver<Void> testObserver = source.compose(RxLifecycle.<Completable, String>bind(lifecycle)).test();
+        testObserver.dispose();
+        testObserver.dispose();
+        lifecycle.onNext("stop");
+
+        assertEquals(asList("subscribe 1", "dispose 1"), monitor.events);
+    }
+
+    @Test
+    public void windowLifecycleEnd() {
+        BehaviorSubject<Event> events = BehaviorSubject.createDefault(Event.START);
+        TestObserver<String> testObserver = stream
+            .compose(createHub(events).<String>bindWhileIn(Event.START, Event.STOP))
+            .test();
+        events.onNext(Event.STOP);
+        events.onNext(Event.DESTROY);
+        testObserver.dispose();
+
+        assertEquals(asList("subscribe 1", "lifecycle 1 null"), monitor.events);
+    }
+
+    @Test
+    public void windowUpstreamEnd() {
+        BehaviorSubject<Event> events = BehaviorSubject.createDefault(Event.START);
+        TestObserver<String> testObserver = stream
+            .compose(createHub(events).<String>bindWhileIn(Event.START, Event.STOP))
+            .test();
+        stream.onError(new RuntimeException());
+        events.onNext(Event.DESTROY);
+        testObserver.dispose();
+
+        assertEquals(asList("subscribe 1", "upstream 1"), monitor.events);
+    }
+
+    @Test
+    public void windowDispose() {
+        BehaviorSubject<Event> events = BehaviorSubject.createDefault(Event.START);
+        TestObserver<String> testObserver = stream
+            .compose(createHub(events).<String>bindWhileIn(Event.START, Event.STOP))
+            .test();
+        testObserver.dispose();
+        testObserver.dispose();
+        events.onNext(Event.DESTROY);
+
+        assertEquals(asList("subscribe 1", "dispose 1"), monitor.events);
+    }
+
+    @Test
+    public void uninstall() {
+        RxLifecycle.setMonitor(null);
+        stream.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+        lifecycle.onNext("stop");
+
+        assertTrue(monitor.events.isEmpty());
+    }
+
+    private static LifecycleHub<Event> createHub(Observable<Event> lifecycle) {
+        return LifecycleHub.createCorresponding(lifecycle, Event.class, new CorrespondingEventsFunction<Event>() {
+            @Override
+            public Event apply(Event event) {
+                return event == Event.DESTROY ? null : Event.DESTROY;
+            }
+        });
+    }
+
+    enum Event {
+        START,
+        STOP,
+        DESTROY
+    }
+
+    static final class RecordingMonitor extends RxLifecycleMonitor {
+
+        final List<String> events = new ArrayList<>();
+        int bindings;
+
+        @Override
+        public Object onSubscribe(LifecycleTransformer<?> transformer) {
+            int binding = ++bindings;
+            events.add("subscribe " + binding);
+            return binding;
+        }
+
+        @Override
+        public Object onSubscribe(LifecycleWindowTransformer<?> transformer) {
+            int binding = ++bindings;
+            events.add("subscribe " + binding);
+            return binding;
+        }
+
+        @Override
+        public void onLifecycleEnd(Object token, Object event) {
+            events.add("lifecycle " + token + " " + event);
+        }
+
+        @Override
+        public void onUpstreamEnd(Object token) {
+            events.add("upstream " + token);
+        }
+
+        @Override
+        public void onDispose(Object token) {
+            events.add("dispose " + token);
+        }
+    }
+}
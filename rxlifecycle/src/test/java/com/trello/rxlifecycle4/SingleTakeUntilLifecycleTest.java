@@ -0,0 +1,115 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+
+import io.reactivex.rxjava3.observers.TestObserver;
+import io.reactivex.rxjava3.subjects.BehaviorSubject;
+import io.reactivex.rxjava3.subjects.PublishSubject;
+import io.reactivex.rxjava3.subjects.SingleSubject;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SingleTakeUntilLifecycleTest {
+
+    SingleSubject<String> single;
+    PublishSubject<String> lifecycle;
+
+    @Before
+    public void setup() {
+        single = SingleSubject.create();
+        lifecycle = PublishSubject.create();
+    }
+
+    @Test
+    public void lifecycleEventCancelsAndDisposesBoth() {
+        TestObserver<String> testObserver = single.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+        assertTrue(single.hasObservers());
+        assertTrue(lifecycle.hasObservers());
+
+        lifecycle.onNext("stop");
+
+        testObserver.assertError(CancellationException.class);
+        assertFalse(single.hasObservers());
+        assertFalse(lifecycle.hasObservers());
+    }
+
+    @Test
+    public void upstreamSuccessDisposesLifecycle() {
+        TestObserver<String> testObserver = single.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+
+        single.onSuccess("1");
+
+        testObserver.assertResult("1");
+        assertFalse(lifecycle.hasObservers());
+    }
+
+    @Test
+    public void upstreamErrorDisposesLifecycle() {
+        TestObserver<String> testObserver = single.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+
+        single.onError(new IllegalStateException());
+
+        testObserver.assertError(IllegalStateException.class);
+        assertFalse(lifecycle.hasObservers());
+    }
+
+    @Test
+    public void lifecycleErrorDisposesUpstream() {
+        TestObserver<String> testObserver = single.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+
+        lifecycle.onError(new IllegalStateException());
+
+        testObserver.assertError(IllegalStateException.class);
+        assertFalse(single.hasObservers());
+    }
+
+    @Test
+    public void lifecycleCompleteFails() {
+        TestObserver<String> testObserver = single.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+
+        lifecycle.onComplete();
+
+        testObserver.assertError(NoSuchElementException.class);
+        assertFalse(single.hasObservers());
+    }
+
+    @Test
+    public void disposeDisposesBoth() {
+        TestObserver<String> testObserver = single.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+
+        testObserver.dispose();
+
+        assertFalse(single.hasObservers());
+        assertFalse(lifecycle.hasObservers());
+    }
+
+    @Test
+    public void lifecycleAlreadyEnded() {
+        BehaviorSubject<String> lifecycle = BehaviorSubject.createDefault("stop");
+
+        TestObserver<String> testObserver = single.compose(RxLifecycle.<String, String>bind(lifecycle)).test();
+
+        testObserver.assertError(CancellationException.class);
+        assertFalse(single.hasObservers());
+        assertFalse(lifecycle.hasObservers());
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.EnumSet;
+
+import io.reactivex.rxjava3.observers.TestObserver;
+import io.reactivex.rxjava3.subjects.BehaviorSubject;
+import io.reactivex.rxjava3.subjects.PublishSubject;
+
+public class UntilAnyEventTransformerObservableTest {
+
+    PublishSubject<String> stream;
+    PublishSubject<Event> lifecycle;
+
+    @Before
+    public void setup() {
+        stream = PublishSubject.create();
+        lifecycle = PublishSubject.create();
+    }
+
+    @Test
+    public void otherEvents() {
+        TestObserver<String> testObserver = stream
+            .compose(RxLifecycle.<String, Event>bindUntilAnyEvent(lifecycle, EnumSet.of(Event.PAUSE, Event.STOP)))
+            .test();
+
+        stream.onNext("1");
+        lifecycle.onNext(Event.CREATE);
+        lifecycle.onNext(Event.RESUME);
+        stream.onNext("2");
+
+        testObserver.assertValues("1", "2");
+        testObserver.assertNotComplete();
+    }
+
+    @Test
+    public void anyEventInSet() {
+        TestObserver<String> pauseObserver = stream
+            .compose(RxLifecycle.<String, Event>bindUntilAnyEvent(lifecycle, EnumSet.of(Event.PAUSE, Event.STOP)))
+            .test();
+        TestObserver<String> stopObserver = stream
+            .compose(RxLifecycle.<String, Event>bindUntilAnyEvent(lifecycle, EnumSet.of(Event.STOP, Event.DESTROY)))
+            .test();
+
+        stream.onNext("1");
+        lifecycle.onNext(Event.PAUSE);
+        stream.onNext("2");
+        lifecycle.onNext(Event.STOP);
+        stream.onNext("3");
+
+        pauseObserver.assertResult("1");
+        stopObserver.assertResult("1", "2");
+    }
+
+    @Test
+    public void setIsCopied() {
+        EnumSet<Event> events = EnumSet.of(Event.STOP);
+        TestObserver<String> testObserver = stream
+            .compose(RxLifecycle.<String, Event>bindUntilAnyEvent(lifecycle, events))
+            .test();
+
+        events.add(Event.PAUSE);
+        lifecycle.onNext(Event.PAUSE);
+        testObserver.assertNotComplete();
+    }
+
+    @Test
+    public void latestEventInSet() {
+        BehaviorSubject<Event> lifecycle = BehaviorSubject.createDefault(Event.PAUSE);
+
+        stream.compose(RxLifecycle.<String, Event>bindUntilAnyEvent(lifecycle, EnumSet.of(Event.PAUSE, Event.STOP)))
+            .test()
+            .assertResult();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void emptySetThrows() {
+        RxLifecycle.bindUntilAnyEvent(lifecycle, EnumSet.noneOf(Event.class));
+    }
+
+    enum Event {
+        CREATE,
+        RESUME,
+        PAUSE,
+        STOP,
+        DESTROY
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.trello.rxlifecycle4;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.reactivex.rxjava3.functions.Function;
+import io.reactivex.rxjava3.observers.TestObserver;
+import io.reactivex.rxjava3.subjects.BehaviorSubject;
+import io.reactivex.rxjava3.subjects.PublishSubject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class UntilCorrespondingEnumEventTransformerTest {
+
+    PublishSubject<String> stream;
+    BehaviorSubject<Event> lifecycle;
+
+    @Before
+    public void setup() {
+        stream = PublishSubject.create();
+        lifecycle = BehaviorSubject.create();
+    }
+
+    @Test
+    public void noEvents() {
+        TestObserver<String> testObserver = stream
+            .compose(RxLifecycle.<String, Event>bindEnum(lifecycle, Event.class, CORRESPONDING_EVENTS))
+            .test();
+
+        stream.onNext("1");
+        stream.onNext("2");
+        testObserver.assertValues("1", "2");
+        testObserver.assertNotComplete();
+    }
+
+    @Test
+    public void openEvents() {
+        lifecycle.onNext(Event.CREATE);
+        TestObserver<String> testObserver = stream
+            .compose(RxLifecycle.<String, Event>bindEnum(lifecycle, Event.class, CORRESPONDING_EVENTS))
+            .test();
+
+        stream.onNext("1");
+        lifecycle.onNext(Event.START);
+        stream.onNext("2");
+
+        testObserver.assertValues("1", "2");
+        testObserver.assertNotComplete();
+    }
+
+    @Test
+    public void openAndCloseEvent() {
+        lifecycle.onNext(Event.START);
+        TestObserver<String> testObserver = stream
+            .compose(RxLifecycle.<String, Event>bindEnum(lifecycle, Event.class, CORRESPONDING_EVENTS))
+            .test();
+
+        stream.onNext("1");
+        lifecycle.onNext(Event.STOP);
+        stream.onNext("2");
+
+        testObserver.assertResult("1");
+        assertFalse(lifecycle.hasObservers());
+    }
+
+    @Test
+    public void firstEventAfterSubscribe() {
+        TestObserver<String> testObserver = stream
+            .compose(RxLifecycle.<String, Event>bindEnum(lifecycle, Event.class, CORRESPONDING_EVENTS))
+            .test();
+
+        lifecycle.onNext(Event.START);
+        testObserver.assertNotComplete();
+        lifecycle.onNext(Event.STOP);
+        testObserver.assertComplete();
+    }
+
+    @Test
+    public void outsideLifecycle() {
+        lifecycle.onNext(Event.DESTROY);
+        TestObserver<String> testObserver = stream
+            .compose(RxLifecycle.<String, Event>bindEnum(lifecycle, Event.class, CORRESPONDING_EVENTS))
+            .test();
+
+        testObserver.assertResult();
+    }
+
+    @Test
+    public void unsupportedEvent() {
+        lifecycle.onNext(Event.UNSUPPORTED);
+        TestObserver<String> testObserver = stream
+            .compose(RxLifecycle.<String, Event>bindEnum(lifecycle, Event.class, CORRESPONDING_EVENTS))
+            .test();
+
+        testObserver.assertError(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void resolvesEachEventOnce() {
+        final AtomicInteger calls = new AtomicInteger();
+        LifecycleTransformer<String> transformer = RxLifecycle.bindEnum(lifecycle, Event.class,
+            new Function<Event, Event>() {
+                @Override
+                public Event apply(Event event) throws Exception {
+                    calls.incrementAndGet();
+                    return Event.DESTROY;
+                }
+            });
+        assertEquals(0, calls.get());
+
+        lifecycle.onNext(Event.CREATE);
+        stream.compose(transformer).test();
+        stream.compose(transformer).test();
+        assertEquals(1, calls.get());
+    }
+
+    // Null checks
+
+    @Test(expected = NullPointerException.class)
+    public void testBindEnumThrowsOnNullLifecycle() {
+        //noinspection ResourceType
+        RxLifecycle.bindEnum(null, Event.class, CORRESPONDING_EVENTS);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testBindEnumThrowsOnNullEventType() {
+        //noinspection ResourceType
+        RxLifecycle.bindEnum(lifecycle, null, CORRESPONDING_EVENTS);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testBindEnumThrowsOnNullFunction() {
+        //noinspection ResourceType
+        RxLifecycle.bindEnum(lifecycle, Event.class, null);
+    }
+
+    enum Event {
+        CREATE,
+        START,
+        STOP,
+        DESTROY,
+        UNSUPPORTED
+    }
+
+    private static final Function<Event, Event> CORRESPONDING_EVENTS = new Function<Event, Event>() {
+        @Override
+        public Event apply(Event event) throws Exception {
+            switch (event) {
+                case CREATE:
+                    return Event.DESTROY;
+                case START:
+                    return Event.STOP;
+                case STOP:
+                    return Event.DESTROY;
+                case DESTROY:
+                    throw new OutsideLifecycleException("Outside of lifecycle");
+                default:
+                    throw new UnsupportedOperationException("Binding to " + event + " not yet implemented");
+            }
+        }
+    };
+}
@@ -73,4 +73,17 @@ public class UntilEventTransformerObservableTest {
         testObserver.assertComplete();
     }
 
+    @Test
+    public void equalButNotIdenticalEvent() {
+        TestObserver<String> testObserver = stream
+            .compose(RxLifecycle.<String, String>bindUntilEvent(lifecycle, "stop"))
+            .test();
+
+        stream.onNext("1");
+        lifecycle.onNext(new String("stop"));
+        stream.onNext("2");
+
+        testObserver.assertResult("1");
+    }
+
 }
\ No newline at end of file